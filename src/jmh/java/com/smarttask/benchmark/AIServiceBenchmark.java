@@ -0,0 +1,76 @@
+package com.smarttask.benchmark;
+
+import com.smarttask.ai.ClassificationCache;
+import com.smarttask.ai.ClassificationDictionaryLoader;
+import com.smarttask.service.AIService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword classification behind categorizeTask and suggestPriority, over 1024 distinct inputs.
+ * With cacheEntries=1 nearly every call misses the classification cache and runs the matcher;
+ * with 10000 every call after warmup is a hit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AIServiceBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    @Param({"0", "40", "400"})
+    public int descriptionWords;
+
+    @Param({"1", "10000"})
+    public int cacheEntries;
+
+    private AIService aiService;
+    private final String[] titles = new String[INPUTS];
+    private final String[] descriptions = new String[INPUTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ClassificationDictionaryLoader loader = new ClassificationDictionaryLoader(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(loader, "location", "classpath:ai/classification-dictionary.txt");
+        loader.init();
+        aiService = new AIService(loader, null, new ClassificationCache(cacheEntries), null,
+                new SimpleMeterRegistry());
+
+        Random random = new Random(7);
+        for (int i = 0; i < INPUTS; i++) {
+            titles[i] = BenchmarkData.title(random);
+            descriptions[i] = BenchmarkData.description(random, descriptionWords);
+        }
+    }
+
+    @Benchmark
+    public String categorizeTask() {
+        int i = next++ & (INPUTS - 1);
+        return aiService.categorizeTask(titles[i], descriptions[i]);
+    }
+
+    @Benchmark
+    public String suggestPriority() {
+        int i = next++ & (INPUTS - 1);
+        return aiService.suggestPriority(titles[i], descriptions[i], "WORK");
+    }
+}
@@ -0,0 +1,81 @@
+package com.smarttask.benchmark;
+
+import com.smarttask.entity.Task;
+import com.smarttask.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic task fixtures. Titles and descriptions mix dictionary keywords with filler
+ * words so classification does real matching work.
+ */
+final class BenchmarkData {
+
+    private static final String[] KEYWORDS = {
+            "meeting", "project", "client", "report", "doctor", "gym", "birthday", "family",
+            "groceries", "buy", "invoice", "budget", "course", "study", "urgent", "asap"
+    };
+
+    private static final String[] FILLER = {
+            "the", "quarterly", "review", "with", "team", "before", "friday", "notes", "follow",
+            "up", "prepare", "draft", "check", "update", "plan", "schedule", "call", "list"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static String title(Random random) {
+        return capitalize(word(random)) + " " + word(random) + " " + KEYWORDS[random.nextInt(KEYWORDS.length)];
+    }
+
+    static String description(Random random, int words) {
+        if (words == 0) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(random.nextInt(8) == 0 ? KEYWORDS[random.nextInt(KEYWORDS.length)] : word(random));
+        }
+        return text.toString();
+    }
+
+    static List<Task> tasks(int count, int descriptionWords) {
+        Random random = new Random(42);
+        User user = User.builder().id(1L).username("bench").email("bench@example.com").build();
+        LocalDateTime now = LocalDateTime.of(2026, 1, 5, 12, 0);
+
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task.TaskStatus status = Task.TaskStatus.values()[random.nextInt(Task.TaskStatus.values().length)];
+            tasks.add(Task.builder()
+                    .id((long) i + 1)
+                    .title(title(random))
+                    .description(description(random, descriptionWords))
+                    .status(status)
+                    .priority(Task.TaskPriority.values()[random.nextInt(Task.TaskPriority.values().length)])
+                    .category(Task.TaskCategory.values()[random.nextInt(Task.TaskCategory.values().length)])
+                    .dueDate(now.plusDays(random.nextInt(30)))
+                    .completedAt(status == Task.TaskStatus.COMPLETED ? now.minusHours(random.nextInt(48)) : null)
+                    .position(i)
+                    .user(user)
+                    .createdAt(now.minusDays(random.nextInt(30)))
+                    .updatedAt(now)
+                    .build());
+        }
+        return tasks;
+    }
+
+    private static String word(Random random) {
+        return FILLER[random.nextInt(FILLER.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
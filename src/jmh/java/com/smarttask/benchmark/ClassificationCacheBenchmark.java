@@ -0,0 +1,84 @@
+package com.smarttask.benchmark;
+
+import com.smarttask.ai.ClassificationCache;
+import com.smarttask.ai.ClassificationDictionary;
+import com.smarttask.ai.ClassificationDictionaryLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a classification cache hit costs against the work it skips, over 1024 distinct inputs.
+ * {@code hit} looks up inputs that are all cached, {@code miss} hashes, scans and inserts into a
+ * cache too small to keep them, and {@code scan} runs the dictionary directly with no cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassificationCacheBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    @Param({"0", "40", "400"})
+    public int descriptionWords;
+
+    private ClassificationDictionary dictionary;
+    private ClassificationCache warm;
+    private ClassificationCache cold;
+    private final String[] titles = new String[INPUTS];
+    private final String[] descriptions = new String[INPUTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ClassificationDictionaryLoader loader = new ClassificationDictionaryLoader(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(loader, "location", "classpath:ai/classification-dictionary.txt");
+        loader.init();
+        dictionary = loader.current();
+        warm = new ClassificationCache(INPUTS * 4);
+        cold = new ClassificationCache(1);
+
+        Random random = new Random(7);
+        for (int i = 0; i < INPUTS; i++) {
+            titles[i] = BenchmarkData.title(random);
+            descriptions[i] = BenchmarkData.description(random, descriptionWords);
+            warm.classify(dictionary, titles[i], descriptions[i]);
+        }
+    }
+
+    @Benchmark
+    public ClassificationCache.Classification hit() {
+        int i = next++ & (INPUTS - 1);
+        return warm.classify(dictionary, titles[i], descriptions[i]);
+    }
+
+    @Benchmark
+    public ClassificationCache.Classification miss() {
+        int i = next++ & (INPUTS - 1);
+        return cold.classify(dictionary, titles[i], descriptions[i]);
+    }
+
+    @Benchmark
+    public void scan(Blackhole blackhole) {
+        int i = next++ & (INPUTS - 1);
+        blackhole.consume(dictionary.categorize(titles[i], descriptions[i]));
+        blackhole.consume(dictionary.prioritize(titles[i], descriptions[i]));
+    }
+}
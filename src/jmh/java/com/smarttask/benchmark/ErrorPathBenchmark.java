@@ -0,0 +1,70 @@
+package com.smarttask.benchmark;
+
+import com.smarttask.exception.DomainException;
+import com.smarttask.exception.NotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a "task not found" miss: a RuntimeException with a fresh error map, as the handlers
+ * used to do, against the shared stackless NotFoundException with its prebuilt body. The throw
+ * happens below a recursion of {@code stackDepth} frames, since stack capture cost grows with
+ * depth; a servlet request is typically 100-150 frames deep.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    @Param({"20", "150"})
+    public int stackDepth;
+
+    @Benchmark
+    public Object runtimeExceptionWithMap() {
+        return descend(stackDepth, false);
+    }
+
+    @Benchmark
+    public Object stacklessWithPrebuiltBody() {
+        return descend(stackDepth, true);
+    }
+
+    private static Object descend(int depth, boolean domain) {
+        return depth == 0 ? miss(domain) : descend(depth - 1, domain);
+    }
+
+    private static Object miss(boolean domain) {
+        if (domain) {
+            try {
+                throw NotFoundException.TASK;
+            } catch (DomainException ex) {
+                return ex.getBody();
+            }
+        }
+        try {
+            throw new RuntimeException("Task not found");
+        } catch (RuntimeException ex) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("timestamp", LocalDateTime.now());
+            error.put("message", ex.getMessage());
+            error.put("status", 400);
+            return error;
+        }
+    }
+}
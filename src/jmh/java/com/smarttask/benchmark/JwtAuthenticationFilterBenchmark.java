@@ -0,0 +1,82 @@
+package com.smarttask.benchmark;
+
+import com.smarttask.security.CustomUserDetailsService;
+import com.smarttask.security.JwtAuthenticationFilter;
+import com.smarttask.security.JwtHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pass through JwtAuthenticationFilter for a request with a valid token, and one without a
+ * token. User lookup is served from memory so only the filter's own work is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private final FilterChain chain = (request, response) -> {
+    };
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest authenticated;
+    private MockHttpServletRequest anonymous;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtHelper jwtHelper = JwtBenchmark.jwtHelper();
+        UserDetails userDetails = JwtBenchmark.userDetails();
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(null, null, new SimpleMeterRegistry()) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return userDetails;
+            }
+        };
+        filter = new JwtAuthenticationFilter(jwtHelper, userDetailsService);
+
+        authenticated = new MockHttpServletRequest("GET", "/api/tasks");
+        authenticated.addHeader("Authorization", "Bearer " + jwtHelper.generateToken(userDetails));
+        anonymous = new MockHttpServletRequest("GET", "/api/tasks");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication withValidToken() throws Exception {
+        return run(authenticated);
+    }
+
+    @Benchmark
+    public Authentication withoutToken() throws Exception {
+        return run(anonymous);
+    }
+
+    private Authentication run(MockHttpServletRequest request) throws Exception {
+        try {
+            filter.doFilter(request, response, chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.smarttask.benchmark;
+
+import com.smarttask.security.JwtHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtHelper jwtHelper;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtHelper = jwtHelper();
+        userDetails = userDetails();
+        token = jwtHelper.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtHelper.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtHelper.extractUsername(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtHelper.validateToken(token, userDetails);
+    }
+
+    static JwtHelper jwtHelper() {
+        JwtHelper helper = new JwtHelper(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(helper, "secret",
+                "your-256-bit-secret-key-for-jwt-token-generation-must-be-long-enough-2026");
+        ReflectionTestUtils.setField(helper, "expiration", 86_400_000L);
+        return helper;
+    }
+
+    static UserDetails userDetails() {
+        return new User("bench", "encoded", true, true, true, true, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
@@ -0,0 +1,112 @@
+package com.smarttask.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.smarttask.config.CompactWireFormat;
+import com.smarttask.dto.TaskListing;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.entity.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and encoding a page of tasks: entity to DTO, then the page as JSON, or as CBOR for
+ * clients that ask for it, and the streamed JSON that GET /api/tasks now writes straight from
+ * the entities. Encoded sizes are printed in setup, which also checks that the streamed JSON
+ * is the same as the DTO page's.
+ *
+ * writeDtoPage and writeStreamedPage write to a discarding stream, so their gc.alloc.rate.norm
+ * divided by pageSize is the allocation per listed task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+    @Param({"20", "100", "500"})
+    public int pageSize;
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private List<Task> tasks;
+    private Page<TaskResponse> page;
+
+    @Setup
+    public void setUp() throws Exception {
+        json = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        cbor = CompactWireFormat.create();
+        tasks = BenchmarkData.tasks(pageSize, 20);
+        page = toPage(tasks);
+        System.out.printf("%n%d tasks: json %d bytes, cbor %d bytes%n",
+                pageSize, json.writeValueAsBytes(page).length, cbor.writeValueAsBytes(page).length);
+
+        if (!json.readTree(json.writeValueAsBytes(streamedPage())).equals(json.readTree(json.writeValueAsBytes(page)))) {
+            throw new IllegalStateException("Streamed JSON differs from the DTO page");
+        }
+    }
+
+    @Benchmark
+    public Page<TaskResponse> fromEntity() {
+        return toPage(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() throws Exception {
+        return json.writeValueAsBytes(toPage(tasks));
+    }
+
+    @Benchmark
+    public byte[] serializeCbor() throws Exception {
+        return cbor.writeValueAsBytes(toPage(tasks));
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return json.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public void writeDtoPage() throws Exception {
+        json.writeValue(OutputStream.nullOutputStream(), toPage(tasks));
+    }
+
+    @Benchmark
+    public void writeStreamedPage() throws Exception {
+        json.writeValue(OutputStream.nullOutputStream(), streamedPage());
+    }
+
+    private TaskListing streamedPage() {
+        return TaskListing.of(new PageImpl<>(tasks, PageRequest.of(0, pageSize), tasks.size()));
+    }
+
+    private Page<TaskResponse> toPage(List<Task> source) {
+        List<TaskResponse> content = new ArrayList<>(source.size());
+        for (Task task : source) {
+            content.add(TaskResponse.fromEntity(task));
+        }
+        return new PageImpl<>(content, PageRequest.of(0, pageSize), source.size());
+    }
+}
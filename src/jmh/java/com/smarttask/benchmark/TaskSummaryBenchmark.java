@@ -0,0 +1,45 @@
+package com.smarttask.benchmark;
+
+import com.smarttask.entity.Task;
+import com.smarttask.service.AIService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSummaryBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int taskCount;
+
+    private AIService aiService;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        aiService = new AIService(null, null, null, null, new SimpleMeterRegistry());
+        tasks = BenchmarkData.tasks(taskCount, 20);
+    }
+
+    @Benchmark
+    public String generateTaskSummary() {
+        return aiService.generateTaskSummary(tasks);
+    }
+}
@@ -0,0 +1,81 @@
+package com.smarttask.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.smarttask.config.CompactWireFormat;
+import com.smarttask.dto.TaskEvent;
+import com.smarttask.dto.TaskEventBatch;
+import com.smarttask.dto.TaskResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of WebSocket task batches in JSON versus the compact CBOR format.
+ * Encoded sizes are printed in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"1", "20", "200"})
+    public int batchSize;
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private TaskEventBatch batch;
+    private byte[] jsonBytes;
+    private byte[] cborBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        json = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        cbor = CompactWireFormat.create();
+
+        List<TaskEvent> events = BenchmarkData.tasks(batchSize, 20).stream()
+                .map(task -> new TaskEvent(TaskEvent.Type.UPDATED, task.getId(), TaskResponse.fromEntity(task)))
+                .toList();
+        batch = new TaskEventBatch(events, batchSize);
+        jsonBytes = json.writeValueAsBytes(batch);
+        cborBytes = cbor.writeValueAsBytes(batch);
+        System.out.printf("%nbatch of %d: json %d bytes, cbor %d bytes%n", batchSize, jsonBytes.length, cborBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return json.writeValueAsBytes(batch);
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() throws Exception {
+        return cbor.writeValueAsBytes(batch);
+    }
+
+    @Benchmark
+    public TaskEventBatch decodeJson() throws Exception {
+        return json.readValue(jsonBytes, TaskEventBatch.class);
+    }
+
+    @Benchmark
+    public TaskEventBatch decodeCbor() throws Exception {
+        return cbor.readValue(cborBytes, TaskEventBatch.class);
+    }
+}
@@ -0,0 +1,10 @@
+package com.smarttask.ai;
+
+import com.smarttask.entity.Task;
+
+/**
+ * Result of an {@link AIProvider}; {@code source} names the backend that produced it.
+ */
+public record AIInsight(Task.TaskCategory category, Task.TaskPriority priority, String summary, String suggestion,
+                        String source) {
+}
@@ -0,0 +1,14 @@
+package com.smarttask.ai;
+
+import com.smarttask.entity.Task;
+
+/**
+ * Input for an {@link AIProvider}. Category and priority are optional; when set they are
+ * treated as given rather than inferred. Equal prompts may share a single backend call.
+ */
+public record AIPrompt(String title, String description, Task.TaskCategory category, Task.TaskPriority priority) {
+
+    public static AIPrompt of(Task task) {
+        return new AIPrompt(task.getTitle(), task.getDescription(), task.getCategory(), task.getPriority());
+    }
+}
@@ -0,0 +1,12 @@
+package com.smarttask.ai;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of AI insights for a single task. Implementations must not block the calling thread;
+ * slow backends complete the returned future later.
+ */
+public interface AIProvider {
+
+    CompletableFuture<AIInsight> analyze(AIPrompt prompt);
+}
@@ -0,0 +1,56 @@
+package com.smarttask.ai;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal lock-free circuit breaker. After {@code failureThreshold} consecutive failures it opens
+ * for {@code openMillis}; afterwards a single trial call is let through and its outcome decides
+ * whether the breaker closes again. Every call let through must end in exactly one
+ * {@link #recordSuccess()} or {@link #recordFailure()}, or the breaker stays half-open for good.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile long openUntil;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public boolean allowRequest() {
+        if (consecutiveFailures.get() < failureThreshold) {
+            return true;
+        }
+        if (System.currentTimeMillis() < openUntil) {
+            return false;
+        }
+        return trialInFlight.compareAndSet(false, true);
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        trialInFlight.set(false);
+    }
+
+    public void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openUntil = System.currentTimeMillis() + openMillis;
+        }
+        trialInFlight.set(false);
+    }
+
+    public State state() {
+        if (consecutiveFailures.get() < failureThreshold) {
+            return State.CLOSED;
+        }
+        return System.currentTimeMillis() < openUntil ? State.OPEN : State.HALF_OPEN;
+    }
+}
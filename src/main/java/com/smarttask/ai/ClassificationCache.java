@@ -0,0 +1,132 @@
+package com.smarttask.ai;
+
+import com.smarttask.entity.Task;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers dictionary classifications of recently seen title/description pairs, so duplicate
+ * texts (imports, retries, repeated batch items) skip the keyword scan. Entries computed with
+ * an older dictionary snapshot are treated as misses.
+ *
+ * Entries are keyed on a 128-bit hash of the text rather than the text itself, so a key has a
+ * fixed size however long the descriptions are. The hash folds case character by character,
+ * as the keyword matcher does, so texts differing only in case share an entry. It is seeded
+ * per instance, so colliding texts cannot be prepared in advance.
+ */
+@Component
+public class ClassificationCache {
+
+    private final LruCache<TextKey, Classification> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final long seed = ThreadLocalRandom.current().nextLong();
+
+    public ClassificationCache(@Value("${ai.cache.max-entries:10000}") int maxEntries) {
+        this.cache = new LruCache<>(maxEntries, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public Classification classify(ClassificationDictionary dictionary, String title, String description) {
+        TextKey key = TextKey.of(seed, title, description);
+        Classification cached = cache.get(key);
+        if (cached != null && cached.dictionary() == dictionary) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Classification computed = new Classification(dictionary,
+                dictionary.categorize(title, description),
+                dictionary.prioritize(title, description));
+        cache.put(key, computed);
+        return computed;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * MurmurHash3 x64 128 over the case-folded chars, eight to a block. Each text ends with its
+     * own tail block and a block holding its length, so the boundary between title and
+     * description cannot shift. Reads the strings in place; the key is the only allocation.
+     */
+    private record TextKey(long high, long low) {
+
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+
+        static TextKey of(long seed, String title, String description) {
+            long h1 = seed;
+            long h2 = seed;
+            for (int part = 0; part < 2; part++) {
+                String text = part == 0 ? title : description;
+                int length = text != null ? text.length() : 0;
+                int blocks = length / 8 + 2;
+                for (int block = 0; block < blocks; block++) {
+                    long k1;
+                    long k2;
+                    if (block < blocks - 1) {
+                        int from = block * 8;
+                        int count = Math.min(length - from, 8);
+                        k1 = pack(text, from, Math.min(count, 4));
+                        k2 = pack(text, from + 4, count - 4);
+                    } else {
+                        k1 = text != null ? length : -1;
+                        k2 = 0;
+                    }
+                    h1 ^= Long.rotateLeft(k1 * C1, 31) * C2;
+                    h1 = (Long.rotateLeft(h1, 27) + h2) * 5 + 0x52dce729;
+                    h2 ^= Long.rotateLeft(k2 * C2, 33) * C1;
+                    h2 = (Long.rotateLeft(h2, 31) + h1) * 5 + 0x38495ab5;
+                }
+            }
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix(h1);
+            h2 = fmix(h2);
+            h1 += h2;
+            h2 += h1;
+            return new TextKey(h1, h2);
+        }
+
+        private static long pack(String text, int from, int count) {
+            long packed = 0;
+            for (int j = 0; j < count; j++) {
+                packed |= (long) fold(text.charAt(from + j)) << (16 * j);
+            }
+            return packed;
+        }
+
+        // Same result as Character.toLowerCase, which the keyword matcher folds with, minus
+        // the table lookup for ASCII
+        private static int fold(char c) {
+            if (c < 128) {
+                return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+            }
+            return Character.toLowerCase(c);
+        }
+
+        private static long fmix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            return h ^ (h >>> 33);
+        }
+    }
+
+    public record Classification(ClassificationDictionary dictionary, Task.TaskCategory category,
+                                 Task.TaskPriority priority) {
+    }
+}
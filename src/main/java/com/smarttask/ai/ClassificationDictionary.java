@@ -0,0 +1,98 @@
+package com.smarttask.ai;
+
+import com.smarttask.entity.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * Immutable, compiled snapshot of the weighted category and priority keywords.
+ *
+ * The text format is one entry per line: {@code <category|priority> <LABEL> <weight> <keyword>}.
+ * The keyword is the rest of the line and may contain spaces. Blank lines and lines starting
+ * with {@code #} are ignored.
+ */
+public final class ClassificationDictionary {
+
+    private static final Task.TaskCategory[] CATEGORIES = Task.TaskCategory.values();
+    private static final Task.TaskPriority[] PRIORITIES = Task.TaskPriority.values();
+
+    private final KeywordMatcher categoryMatcher;
+    private final KeywordMatcher priorityMatcher;
+    private final int keywordCount;
+
+    private ClassificationDictionary(KeywordMatcher categoryMatcher, KeywordMatcher priorityMatcher, int keywordCount) {
+        this.categoryMatcher = categoryMatcher;
+        this.priorityMatcher = priorityMatcher;
+        this.keywordCount = keywordCount;
+    }
+
+    public static ClassificationDictionary parse(Reader source) throws IOException {
+        KeywordMatcher.Builder categories = KeywordMatcher.builder(CATEGORIES.length);
+        KeywordMatcher.Builder priorities = KeywordMatcher.builder(PRIORITIES.length);
+
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] parts = line.split("\\s+", 4);
+            if (parts.length < 4) {
+                throw new IllegalArgumentException("Invalid dictionary entry at line " + lineNumber + ": " + line);
+            }
+            try {
+                String label = parts[1].toUpperCase(Locale.ROOT);
+                int weight = Integer.parseInt(parts[2]);
+                switch (parts[0].toLowerCase(Locale.ROOT)) {
+                    case "category":
+                        categories.add(parts[3], Task.TaskCategory.valueOf(label).ordinal(), weight);
+                        break;
+                    case "priority":
+                        priorities.add(parts[3], Task.TaskPriority.valueOf(label).ordinal(), weight);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown section '" + parts[0] + "'");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid dictionary entry at line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+
+        return new ClassificationDictionary(categories.build(), priorities.build(), categories.size() + priorities.size());
+    }
+
+    /**
+     * Returns the highest scoring category, or {@code null} when no keyword matched.
+     */
+    public Task.TaskCategory categorize(String title, String description) {
+        int label = categoryMatcher.bestLabel(title, description);
+        return label >= 0 ? CATEGORIES[label] : null;
+    }
+
+    /**
+     * Returns the highest scoring priority, or {@code null} when no keyword matched.
+     */
+    public Task.TaskPriority prioritize(String title, String description) {
+        int label = priorityMatcher.bestLabel(title, description);
+        return label >= 0 ? PRIORITIES[label] : null;
+    }
+
+    public int keywordCount() {
+        return keywordCount;
+    }
+
+    public int stateCount() {
+        return categoryMatcher.stateCount() + priorityMatcher.stateCount();
+    }
+
+    public long footprintBytes() {
+        return categoryMatcher.footprintBytes() + priorityMatcher.footprintBytes();
+    }
+}
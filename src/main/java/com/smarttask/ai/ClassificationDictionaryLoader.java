@@ -0,0 +1,115 @@
+package com.smarttask.ai;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the active {@link ClassificationDictionary} and swaps in a freshly compiled snapshot
+ * whenever the dictionary file changes. Readers only ever see a complete snapshot through a
+ * single volatile read; a failed reload keeps the previous snapshot, and a file that failed is
+ * not tried again until it changes.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClassificationDictionaryLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(ClassificationDictionaryLoader.class);
+
+    private final ResourceLoader resourceLoader;
+
+    @Value("${ai.dictionary.location:classpath:ai/classification-dictionary.txt}")
+    private String location;
+
+    private volatile ClassificationDictionary current;
+    private volatile ReloadReport lastReload;
+    private volatile long lastModified = -1;
+    private volatile long failedModified = -1;
+
+    // Not synchronized: a virtual thread reading the file would stay pinned to its carrier
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    public ClassificationDictionary current() {
+        return current;
+    }
+
+    public ReloadReport lastReload() {
+        return lastReload;
+    }
+
+    /**
+     * Compiles the dictionary file and publishes it. Throws if the file cannot be read or parsed.
+     */
+    public ReloadReport reload() {
+        reloadLock.lock();
+        try {
+            Resource resource = resourceLoader.getResource(location);
+            long modified = lastModified(resource);
+
+            long start = System.nanoTime();
+            ClassificationDictionary dictionary;
+            try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+                dictionary = ClassificationDictionary.parse(reader);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read classification dictionary from " + location, e);
+            }
+            long compileNanos = System.nanoTime() - start;
+
+            current = dictionary;
+            lastModified = modified;
+            lastReload = new ReloadReport(location, dictionary.keywordCount(), dictionary.stateCount(),
+                    compileNanos / 1_000, dictionary.footprintBytes(), Instant.now());
+
+            log.info("Loaded classification dictionary from {}: {} keywords, {} states, compiled in {} us, ~{} bytes",
+                    location, lastReload.keywords(), lastReload.states(), lastReload.compileMicros(), lastReload.footprintBytes());
+            return lastReload;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.dictionary.refresh-interval-ms:30000}")
+    public void reloadIfChanged() {
+        long modified = lastModified(resourceLoader.getResource(location));
+        if (modified <= 0 || modified == lastModified || modified == failedModified) {
+            return;
+        }
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            failedModified = modified;
+            log.error("Keeping previous classification dictionary, reload of {} failed", location, e);
+        }
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            // Resources inside a jar have no usable timestamp; they never change at runtime anyway
+            return 0;
+        }
+    }
+
+    public record ReloadReport(String location, int keywords, int states, long compileMicros,
+                               long footprintBytes, Instant loadedAt) {
+    }
+}
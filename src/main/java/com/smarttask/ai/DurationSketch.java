@@ -0,0 +1,109 @@
+package com.smarttask.ai;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Streaming quantile sketch for positive durations in minutes, with a fixed relative error.
+ *
+ * Values fall into logarithmic buckets whose bounds grow by {@code gamma}; any quantile is
+ * answered within {@link #RELATIVE_ACCURACY} of the true value. Only the range of buckets that
+ * was actually seen is stored, so a sketch spanning one minute to a year stays under 330
+ * counters however many values it has absorbed. Not thread-safe.
+ */
+public final class DurationSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.02;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final long MAX_MINUTES = 366L * 24 * 60;
+
+    private int minIndex;
+    private int[] counts = new int[0];
+    private long count;
+
+    public void add(long minutes) {
+        int index = indexOf(Math.max(1, Math.min(minutes, MAX_MINUTES)));
+        if (counts.length == 0) {
+            minIndex = index;
+            counts = new int[1];
+        } else if (index < minIndex) {
+            int[] grown = new int[counts.length + (minIndex - index)];
+            System.arraycopy(counts, 0, grown, minIndex - index, counts.length);
+            counts = grown;
+            minIndex = index;
+        } else if (index >= minIndex + counts.length) {
+            counts = Arrays.copyOf(counts, index - minIndex + 1);
+        }
+        counts[index - minIndex]++;
+        count++;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the value at quantile {@code q} in minutes, or {@code -1} for an empty sketch.
+     */
+    public long quantile(double q) {
+        if (count == 0) {
+            return -1;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return Math.round(2 * Math.pow(GAMMA, minIndex + i) / (GAMMA + 1));
+            }
+        }
+        return Math.round(2 * Math.pow(GAMMA, minIndex + counts.length - 1) / (GAMMA + 1));
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeShort(minIndex);
+        out.writeShort(counts.length);
+        for (int c : counts) {
+            writeVarInt(out, c);
+        }
+    }
+
+    public static DurationSketch readFrom(DataInput in) throws IOException {
+        DurationSketch sketch = new DurationSketch();
+        sketch.minIndex = in.readShort();
+        sketch.counts = new int[in.readShort()];
+        for (int i = 0; i < sketch.counts.length; i++) {
+            sketch.counts[i] = readVarInt(in);
+            sketch.count += sketch.counts[i];
+        }
+        return sketch;
+    }
+
+    private static int indexOf(long minutes) {
+        return (int) Math.ceil(Math.log(minutes) / LOG_GAMMA);
+    }
+
+    // Most buckets hold small counts, so a 7-bit varint keeps snapshots around one byte per bucket
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.smarttask.ai;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * Aho-Corasick automaton that finds every keyword of a dictionary in a single,
+ * case-insensitive pass over the input. Each keyword carries an integer label
+ * (for example an enum ordinal) and a weight, and the scan accumulates weights per label.
+ *
+ * Instances are immutable and safe to share between threads.
+ */
+public final class KeywordMatcher {
+
+    private static final int ROOT = 0;
+
+    private final int labelCount;
+    private final char[] alphabet;
+    private final int[] asciiClass;
+    private final int alphabetSize;
+    private final int[] transitions;
+    private final int[] outputStart;
+    private final int[] outputLabels;
+    private final int[] outputWeights;
+
+    private KeywordMatcher(int labelCount, char[] alphabet, int[] asciiClass, int[] transitions,
+                           int[] outputStart, int[] outputLabels, int[] outputWeights) {
+        this.labelCount = labelCount;
+        this.alphabet = alphabet;
+        this.asciiClass = asciiClass;
+        this.alphabetSize = alphabet.length + 1;
+        this.transitions = transitions;
+        this.outputStart = outputStart;
+        this.outputLabels = outputLabels;
+        this.outputWeights = outputWeights;
+    }
+
+    public static Builder builder(int labelCount) {
+        return new Builder(labelCount);
+    }
+
+    public int labelCount() {
+        return labelCount;
+    }
+
+    public int stateCount() {
+        return outputStart.length - 1;
+    }
+
+    /**
+     * Approximate heap usage of the compiled tables in bytes.
+     */
+    public long footprintBytes() {
+        return arrayBytes(alphabet.length, Character.BYTES)
+                + arrayBytes(asciiClass.length, Integer.BYTES)
+                + arrayBytes(transitions.length, Integer.BYTES)
+                + arrayBytes(outputStart.length, Integer.BYTES)
+                + arrayBytes(outputLabels.length, Integer.BYTES)
+                + arrayBytes(outputWeights.length, Integer.BYTES);
+    }
+
+    private static long arrayBytes(int length, int elementSize) {
+        long size = 16L + (long) length * elementSize;
+        return (size + 7) & ~7L;
+    }
+
+    /**
+     * Scans {@code first + " " + second} without building that string, adding the keyword
+     * weight to {@code scores[label]} for every keyword occurrence and recording the position
+     * of the first occurrence per label in {@code firstHit} (which must be pre-filled by the caller).
+     */
+    public void scan(CharSequence first, CharSequence second, int[] scores, int[] firstHit) {
+        int state = ROOT;
+        int position = 0;
+        if (first != null) {
+            for (int i = 0, n = first.length(); i < n; i++) {
+                state = step(state, first.charAt(i), position++, scores, firstHit);
+            }
+        }
+        if (second != null) {
+            state = step(state, ' ', position++, scores, firstHit);
+            for (int i = 0, n = second.length(); i < n; i++) {
+                state = step(state, second.charAt(i), position++, scores, firstHit);
+            }
+        }
+    }
+
+    /**
+     * Returns the label with the highest total weight, or -1 when nothing matched. Ties go to
+     * the label whose first hit appears earliest in the text, then to the lower label.
+     */
+    public int bestLabel(CharSequence first, CharSequence second) {
+        int[] scores = new int[labelCount];
+        int[] firstHit = new int[labelCount];
+        Arrays.fill(firstHit, Integer.MAX_VALUE);
+        scan(first, second, scores, firstHit);
+
+        int best = -1;
+        for (int label = 0; label < labelCount; label++) {
+            if (firstHit[label] == Integer.MAX_VALUE) {
+                continue;
+            }
+            if (best < 0 || scores[label] > scores[best]
+                    || (scores[label] == scores[best] && firstHit[label] < firstHit[best])) {
+                best = label;
+            }
+        }
+        return best;
+    }
+
+    private int step(int state, char c, int position, int[] scores, int[] firstHit) {
+        int symbol = classOf(Character.toLowerCase(c));
+        if (symbol == 0) {
+            return ROOT;
+        }
+        int next = transitions[state * alphabetSize + symbol];
+        for (int i = outputStart[next], end = outputStart[next + 1]; i < end; i++) {
+            int label = outputLabels[i];
+            scores[label] += outputWeights[i];
+            if (position < firstHit[label]) {
+                firstHit[label] = position;
+            }
+        }
+        return next;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClass[c];
+        }
+        int index = Arrays.binarySearch(alphabet, c);
+        return index >= 0 ? index + 1 : 0;
+    }
+
+    public static final class Builder {
+
+        private final int labelCount;
+        private final List<String> keywords = new ArrayList<>();
+        private final List<int[]> entries = new ArrayList<>();
+
+        private Builder(int labelCount) {
+            this.labelCount = labelCount;
+        }
+
+        public Builder add(String keyword, int label) {
+            return add(keyword, label, 1);
+        }
+
+        public Builder add(String keyword, int label, int weight) {
+            if (keyword == null || keyword.isBlank()) {
+                throw new IllegalArgumentException("Keyword must not be blank");
+            }
+            if (label < 0 || label >= labelCount) {
+                throw new IllegalArgumentException("Label out of range: " + label);
+            }
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weight must be positive: " + weight);
+            }
+            keywords.add(keyword.toLowerCase(Locale.ROOT));
+            entries.add(new int[]{label, weight});
+            return this;
+        }
+
+        public int size() {
+            return keywords.size();
+        }
+
+        public KeywordMatcher build() {
+            TreeSet<Character> symbols = new TreeSet<>();
+            for (String keyword : keywords) {
+                for (int i = 0; i < keyword.length(); i++) {
+                    symbols.add(Character.toLowerCase(keyword.charAt(i)));
+                }
+            }
+            char[] alphabet = new char[symbols.size()];
+            int[] asciiClass = new int[128];
+            int index = 0;
+            for (char symbol : symbols) {
+                alphabet[index++] = symbol;
+                if (symbol < 128) {
+                    asciiClass[symbol] = index;
+                }
+            }
+            int alphabetSize = alphabet.length + 1;
+
+            // Trie construction: goto function with -1 for missing edges
+            List<int[]> edges = new ArrayList<>();
+            List<List<int[]>> outputs = new ArrayList<>();
+            edges.add(newRow(alphabetSize));
+            outputs.add(new ArrayList<>());
+            for (int k = 0; k < keywords.size(); k++) {
+                String keyword = keywords.get(k);
+                int state = ROOT;
+                for (int i = 0; i < keyword.length(); i++) {
+                    int symbol = Arrays.binarySearch(alphabet, Character.toLowerCase(keyword.charAt(i))) + 1;
+                    int next = edges.get(state)[symbol];
+                    if (next < 0) {
+                        next = edges.size();
+                        edges.get(state)[symbol] = next;
+                        edges.add(newRow(alphabetSize));
+                        outputs.add(new ArrayList<>());
+                    }
+                    state = next;
+                }
+                outputs.get(state).add(entries.get(k));
+            }
+
+            // Breadth-first pass to compute failure links and turn the trie into a full DFA
+            int stateCount = edges.size();
+            int[] transitions = new int[stateCount * alphabetSize];
+            int[] failure = new int[stateCount];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int symbol = 1; symbol < alphabetSize; symbol++) {
+                int next = edges.get(ROOT)[symbol];
+                if (next < 0) {
+                    transitions[symbol] = ROOT;
+                } else {
+                    transitions[symbol] = next;
+                    failure[next] = ROOT;
+                    queue.add(next);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                outputs.get(state).addAll(outputs.get(failure[state]));
+                for (int symbol = 1; symbol < alphabetSize; symbol++) {
+                    int next = edges.get(state)[symbol];
+                    int fallback = transitions[failure[state] * alphabetSize + symbol];
+                    if (next < 0) {
+                        transitions[state * alphabetSize + symbol] = fallback;
+                    } else {
+                        transitions[state * alphabetSize + symbol] = next;
+                        failure[next] = fallback;
+                        queue.add(next);
+                    }
+                }
+            }
+
+            int[] outputStart = new int[stateCount + 1];
+            for (int state = 0; state < stateCount; state++) {
+                outputStart[state + 1] = outputStart[state] + outputs.get(state).size();
+            }
+            int[] outputLabels = new int[outputStart[stateCount]];
+            int[] outputWeights = new int[outputStart[stateCount]];
+            for (int state = 0; state < stateCount; state++) {
+                int offset = outputStart[state];
+                for (int[] entry : outputs.get(state)) {
+                    outputLabels[offset] = entry[0];
+                    outputWeights[offset++] = entry[1];
+                }
+            }
+
+            return new KeywordMatcher(labelCount, alphabet, asciiClass, transitions,
+                    outputStart, outputLabels, outputWeights);
+        }
+
+        private static int[] newRow(int size) {
+            int[] row = new int[size];
+            Arrays.fill(row, -1);
+            return row;
+        }
+    }
+}
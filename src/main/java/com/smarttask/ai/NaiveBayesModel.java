@@ -0,0 +1,258 @@
+package com.smarttask.ai;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Incremental multinomial naive Bayes classifier over hashed title/description tokens.
+ *
+ * Token counts live in an open-addressing table keyed by the token hash, with one row of
+ * per-label counts per token, so neither training nor inference creates token strings.
+ * Reads and writes are guarded by a read/write lock.
+ */
+public final class NaiveBayesModel {
+
+    private static final int EMPTY = 0;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int labelCount;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int[] keys;
+    private int[] counts;
+    private int size;
+    private final int[] documentCounts;
+    private final long[] tokenTotals;
+    private int totalDocuments;
+
+    public NaiveBayesModel(int labelCount) {
+        this(labelCount, INITIAL_CAPACITY);
+    }
+
+    private NaiveBayesModel(int labelCount, int capacity) {
+        this.labelCount = labelCount;
+        this.keys = new int[capacity];
+        this.counts = new int[capacity * labelCount];
+        this.documentCounts = new int[labelCount];
+        this.tokenTotals = new long[labelCount];
+    }
+
+    public void train(CharSequence title, CharSequence description, int label) {
+        if (label < 0 || label >= labelCount) {
+            throw new IllegalArgumentException("Label out of range: " + label);
+        }
+        lock.writeLock().lock();
+        try {
+            IntConsumer add = token -> {
+                // Resolve the slot first: inserting may grow and replace the counts array
+                int slot = slotFor(token);
+                counts[slot * labelCount + label]++;
+                tokenTotals[label]++;
+            };
+            tokenize(title, add);
+            tokenize(description, add);
+            documentCounts[label]++;
+            totalDocuments++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the most likely label among those seen in training, or {@code null} when the
+     * model has no training data yet. The confidence is the posterior over all labels, untrained
+     * ones scored with their smoothed counts, so a model that has only ever seen one label is
+     * not automatically certain of it.
+     */
+    public Prediction predict(CharSequence title, CharSequence description) {
+        lock.readLock().lock();
+        try {
+            if (totalDocuments == 0) {
+                return null;
+            }
+
+            double[] scores = new double[labelCount];
+            for (int label = 0; label < labelCount; label++) {
+                scores[label] = Math.log((documentCounts[label] + 1.0) / (totalDocuments + labelCount));
+            }
+            double vocabulary = Math.max(size, 1);
+            IntConsumer score = token -> {
+                int slot = find(token);
+                int row = slot >= 0 ? slot * labelCount : -1;
+                for (int label = 0; label < labelCount; label++) {
+                    int count = row >= 0 ? counts[row + label] : 0;
+                    scores[label] += Math.log((count + 1.0) / (tokenTotals[label] + vocabulary));
+                }
+            };
+            tokenize(title, score);
+            tokenize(description, score);
+
+            int best = -1;
+            for (int label = 0; label < labelCount; label++) {
+                if (documentCounts[label] > 0 && (best < 0 || scores[label] > scores[best])) {
+                    best = label;
+                }
+            }
+
+            // Posterior of the winner, computed relative to its score to stay numerically stable
+            double sum = 0;
+            for (int label = 0; label < labelCount; label++) {
+                sum += Math.exp(scores[label] - scores[best]);
+            }
+            return new Prediction(best, 1.0 / sum);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return totalDocuments;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(labelCount);
+            out.writeInt(totalDocuments);
+            for (int label = 0; label < labelCount; label++) {
+                out.writeInt(documentCounts[label]);
+                out.writeLong(tokenTotals[label]);
+            }
+            out.writeInt(size);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] == EMPTY) {
+                    continue;
+                }
+                out.writeInt(keys[slot]);
+                for (int label = 0; label < labelCount; label++) {
+                    out.writeInt(counts[slot * labelCount + label]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static NaiveBayesModel readFrom(DataInput in) throws IOException {
+        int labelCount = in.readInt();
+        int totalDocuments = in.readInt();
+        int[] documentCounts = new int[labelCount];
+        long[] tokenTotals = new long[labelCount];
+        for (int label = 0; label < labelCount; label++) {
+            documentCounts[label] = in.readInt();
+            tokenTotals[label] = in.readLong();
+        }
+        int size = in.readInt();
+
+        NaiveBayesModel model = new NaiveBayesModel(labelCount, capacityFor(size));
+        System.arraycopy(documentCounts, 0, model.documentCounts, 0, labelCount);
+        System.arraycopy(tokenTotals, 0, model.tokenTotals, 0, labelCount);
+        model.totalDocuments = totalDocuments;
+        for (int i = 0; i < size; i++) {
+            int row = model.slotFor(in.readInt()) * labelCount;
+            for (int label = 0; label < labelCount; label++) {
+                model.counts[row + label] = in.readInt();
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Splits text into lowercase letter/digit runs of two or more characters and passes the
+     * hash of each run to {@code sink}. Hashes are never {@link #EMPTY}.
+     */
+    static void tokenize(CharSequence text, IntConsumer sink) {
+        if (text == null) {
+            return;
+        }
+        int hash = 0x811c9dc5;
+        int length = 0;
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                hash = (hash ^ Character.toLowerCase(c)) * 0x01000193;
+                length++;
+            } else {
+                if (length >= 2) {
+                    sink.accept(hash == EMPTY ? 1 : hash);
+                }
+                hash = 0x811c9dc5;
+                length = 0;
+            }
+        }
+    }
+
+    private int find(int key) {
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            if (keys[slot] == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private int slotFor(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+            return slotFor(key);
+        }
+        keys[slot] = key;
+        size++;
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new int[oldKeys.length * 2];
+        counts = new int[keys.length * labelCount];
+        int mask = keys.length - 1;
+        for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            int key = oldKeys[oldSlot];
+            if (key == EMPTY) {
+                continue;
+            }
+            int slot = mix(key) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            System.arraycopy(oldCounts, oldSlot * labelCount, counts, slot * labelCount, labelCount);
+        }
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < entries * 2 + 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public record Prediction(int label, double confidence) {
+    }
+}
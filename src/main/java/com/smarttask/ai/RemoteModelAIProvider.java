@@ -0,0 +1,269 @@
+package com.smarttask.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.smarttask.entity.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking client for a remote model behind a batch inference endpoint.
+ *
+ * Concurrent prompts are queued and sent together, either when {@code maxBatchSize} prompts are
+ * waiting or after {@code lingerMillis}. Identical prompts that are already queued or in flight
+ * share one result. Every caller gets an answer within {@code timeoutMillis}: timeouts, HTTP
+ * errors, malformed items and an open circuit breaker all degrade to the fallback provider.
+ * Failed calls and bodies that cannot be parsed count against the breaker.
+ *
+ * Wire format, one HTTP call per batch:
+ * <pre>
+ * POST {endpoint}  {"model": "...", "items": [{"id": 0, "title": "...", "description": "...",
+ *                   "category": "WORK", "priority": null}]}
+ * 200 OK           {"items": [{"id": 0, "category": "WORK", "priority": "HIGH", "summary": "...",
+ *                   "suggestion": "..."}]}
+ * </pre>
+ * {@code summary} is optional; items without a usable category, priority or suggestion fall back.
+ */
+public class RemoteModelAIProvider implements AIProvider, AutoCloseable {
+
+    public static final String SOURCE = "remote";
+
+    private static final Logger log = LoggerFactory.getLogger(RemoteModelAIProvider.class);
+
+    private final AIProvider fallback;
+    private final CircuitBreaker circuitBreaker;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI endpoint;
+    private final String apiKey;
+    private final String model;
+    private final int maxBatchSize;
+    private final long timeoutMillis;
+
+    private final Map<AIPrompt, CompletableFuture<AIInsight>> inflight = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<AIPrompt> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+
+    public RemoteModelAIProvider(AIProvider fallback, CircuitBreaker circuitBreaker, ObjectMapper objectMapper,
+                                 URI endpoint, String apiKey, String model,
+                                 int maxBatchSize, long lingerMillis, long timeoutMillis) {
+        this.fallback = fallback;
+        this.circuitBreaker = circuitBreaker;
+        this.objectMapper = objectMapper;
+        this.endpoint = endpoint;
+        this.apiKey = apiKey;
+        this.model = model;
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMillis = timeoutMillis;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeoutMillis))
+                .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flush, lingerMillis, lingerMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public CompletableFuture<AIInsight> analyze(AIPrompt prompt) {
+        if (!circuitBreaker.allowRequest()) {
+            return fallback.analyze(prompt);
+        }
+
+        CompletableFuture<AIInsight> shared = inflight.computeIfAbsent(prompt, p -> {
+            queue.add(p);
+            if (queued.incrementAndGet() >= maxBatchSize) {
+                scheduler.execute(this::flush);
+            }
+            return new CompletableFuture<>();
+        });
+
+        // Each caller gets its own deadline without cancelling the shared result for others
+        return shared.copy()
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(ex -> fallback.analyze(prompt));
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    public int queueDepth() {
+        return queued.get();
+    }
+
+    void flush() {
+        while (queued.get() > 0) {
+            List<AIPrompt> batch = new ArrayList<>(maxBatchSize);
+            AIPrompt prompt;
+            while (batch.size() < maxBatchSize && (prompt = queue.poll()) != null) {
+                batch.add(prompt);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            queued.addAndGet(-batch.size());
+            send(batch);
+        }
+    }
+
+    private void send(List<AIPrompt> batch) {
+        HttpRequest request;
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(endpoint)
+                    .timeout(Duration.ofMillis(timeoutMillis))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(toRequest(batch))));
+            if (apiKey != null && !apiKey.isBlank()) {
+                builder.header("Authorization", "Bearer " + apiKey);
+            }
+            request = builder.build();
+        } catch (Exception e) {
+            circuitBreaker.recordFailure();
+            fail(batch, e);
+            return;
+        }
+
+        CompletableFuture<HttpResponse<byte[]>> call;
+        try {
+            call = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            circuitBreaker.recordFailure();
+            fail(batch, e);
+            return;
+        }
+        call.whenComplete((response, error) -> {
+            Throwable failure = error;
+            AIInsight[] insights = null;
+            if (failure == null && response.statusCode() != 200) {
+                failure = new IllegalStateException("Remote model returned HTTP " + response.statusCode());
+            } else if (failure == null) {
+                insights = parse(batch, response.body());
+                if (insights == null) {
+                    failure = new IllegalStateException("Remote model response could not be parsed");
+                }
+            }
+            // Recorded before callers see the outcome; a half-open breaker waits for exactly this
+            if (insights != null) {
+                circuitBreaker.recordSuccess();
+                complete(batch, insights);
+            } else {
+                circuitBreaker.recordFailure();
+                fail(batch, failure);
+            }
+        });
+    }
+
+    private ObjectNode toRequest(List<AIPrompt> batch) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("model", model);
+        ArrayNode items = body.putArray("items");
+        for (int i = 0; i < batch.size(); i++) {
+            AIPrompt prompt = batch.get(i);
+            ObjectNode item = items.addObject();
+            item.put("id", i);
+            item.put("title", prompt.title());
+            item.put("description", prompt.description());
+            item.put("category", prompt.category() != null ? prompt.category().name() : null);
+            item.put("priority", prompt.priority() != null ? prompt.priority().name() : null);
+        }
+        return body;
+    }
+
+    /**
+     * Reads one insight per prompt, null where an item is missing or unusable. Returns null if
+     * the body cannot be read at all, which counts against the breaker; single bad items do not.
+     */
+    private AIInsight[] parse(List<AIPrompt> batch, byte[] body) {
+        AIInsight[] insights = new AIInsight[batch.size()];
+        try {
+            JsonNode items = objectMapper.readTree(body).path("items");
+            if (!items.isArray()) {
+                log.warn("Remote model response has no items array");
+                return null;
+            }
+            for (JsonNode item : items) {
+                int id = item.path("id").asInt(-1);
+                if (id >= 0 && id < insights.length) {
+                    insights[id] = toInsight(batch.get(id), item);
+                }
+            }
+            return insights;
+        } catch (Exception e) {
+            log.warn("Could not parse remote model response", e);
+            return null;
+        }
+    }
+
+    private void complete(List<AIPrompt> batch, AIInsight[] insights) {
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<AIInsight> future = inflight.remove(batch.get(i));
+            if (future == null) {
+                continue;
+            }
+            if (insights[i] != null) {
+                future.complete(insights[i]);
+            } else {
+                future.completeExceptionally(new IllegalStateException("Remote model returned no usable result"));
+            }
+        }
+    }
+
+    private AIInsight toInsight(AIPrompt prompt, JsonNode item) {
+        Task.TaskCategory category = parse(Task.TaskCategory.class, item.path("category").asText(null), prompt.category());
+        Task.TaskPriority priority = parse(Task.TaskPriority.class, item.path("priority").asText(null), prompt.priority());
+        String suggestion = item.path("suggestion").asText(null);
+        if (category == null || priority == null || suggestion == null) {
+            return null;
+        }
+        return new AIInsight(category, priority, item.path("summary").asText(null), suggestion, SOURCE);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, E fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+
+    private void fail(List<AIPrompt> batch, Throwable error) {
+        log.debug("Remote model batch of {} failed: {}", batch.size(), error.toString());
+        for (AIPrompt prompt : batch) {
+            CompletableFuture<AIInsight> future = inflight.remove(prompt);
+            if (future != null) {
+                future.completeExceptionally(error);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        flush();
+    }
+}
@@ -0,0 +1,41 @@
+package com.smarttask.ai;
+
+import com.smarttask.entity.Task;
+import com.smarttask.service.AIService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Answers prompts with the keyword rules in {@link AIService}. Always completes immediately,
+ * which makes it the fallback for remote providers.
+ */
+@Component
+@RequiredArgsConstructor
+public class RuleBasedAIProvider implements AIProvider {
+
+    public static final String SOURCE = "rules";
+
+    private final AIService aiService;
+
+    @Override
+    public CompletableFuture<AIInsight> analyze(AIPrompt prompt) {
+        Task.TaskCategory category = prompt.category() != null
+                ? prompt.category()
+                : Task.TaskCategory.valueOf(aiService.categorizeTask(prompt.title(), prompt.description()));
+        Task.TaskPriority priority = prompt.priority() != null
+                ? prompt.priority()
+                : Task.TaskPriority.valueOf(aiService.suggestPriority(prompt.title(), prompt.description(), category.name()));
+
+        Task task = Task.builder()
+                .title(prompt.title())
+                .description(prompt.description())
+                .category(category)
+                .priority(priority)
+                .build();
+
+        return CompletableFuture.completedFuture(new AIInsight(category, priority,
+                aiService.summarizeTask(task), aiService.generateTaskSuggestion(task), SOURCE));
+    }
+}
@@ -1,20 +1,62 @@
 package com.smarttask.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttask.ai.AIProvider;
+import com.smarttask.ai.CircuitBreaker;
+import com.smarttask.ai.RemoteModelAIProvider;
+import com.smarttask.ai.RuleBasedAIProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.net.URI;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * AI Configuration
  * 
- * Note: The AI service now uses a rule-based implementation that doesn't require
- * external AI API keys or Spring AI dependencies.
+ * The rule-based {@link RuleBasedAIProvider} is always available. Setting ai.remote.enabled
+ * puts a {@link RemoteModelAIProvider} in front of it: prompts are batched to the configured
+ * endpoint, and timeouts, errors or an open circuit breaker fall back to the rules.
  * 
- * To enable Gemini AI integration in the future:
- * 1. Add the Spring AI Google GenAI starter dependency to pom.xml
- * 2. Configure the GEMINI_API_KEY in application.yml
- * 3. Update this configuration to inject GoogleAiChatModel
+ * To enable Gemini or another hosted model, expose it through a gateway that speaks the batch
+ * format documented on {@link RemoteModelAIProvider} and point ai.remote.endpoint at it.
  */
 @Configuration
 public class AIConfig {
-    // AIService is now a simple @Service bean with rule-based AI functionality
-    // No external dependencies required
+
+    @Bean
+    @Primary
+    public AIProvider aiProvider(RuleBasedAIProvider ruleBasedAIProvider,
+                                 ObjectMapper objectMapper,
+                                 @Value("${ai.remote.enabled:false}") boolean remoteEnabled,
+                                 @Value("${ai.remote.endpoint:http://localhost:8090/v1/batch}") String endpoint,
+                                 @Value("${ai.remote.api-key:}") String apiKey,
+                                 @Value("${ai.remote.model:default}") String model,
+                                 @Value("${ai.remote.max-batch-size:16}") int maxBatchSize,
+                                 @Value("${ai.remote.linger-ms:5}") long lingerMillis,
+                                 @Value("${ai.remote.timeout-ms:800}") long timeoutMillis,
+                                 @Value("${ai.remote.failure-threshold:5}") int failureThreshold,
+                                 @Value("${ai.remote.open-duration-ms:30000}") long openMillis) {
+        if (!remoteEnabled) {
+            return ruleBasedAIProvider;
+        }
+        return new RemoteModelAIProvider(ruleBasedAIProvider, new CircuitBreaker(failureThreshold, openMillis),
+                objectMapper, URI.create(endpoint), apiKey, model, maxBatchSize, lingerMillis, timeoutMillis);
+    }
+
+    // One thread, since training is microseconds per correction. A full queue trains on the
+    // publishing thread instead of dropping the correction or starting more threads
+    @Bean
+    public ThreadPoolTaskExecutor categoryLearningExecutor(@Value("${ai.learning.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("category-learning-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
 }
@@ -0,0 +1,67 @@
+package com.smarttask.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * CBOR encoding for clients that ask for it. Compared to the JSON responses, timestamps are
+ * epoch milliseconds, enums are ordinals and null fields are left out; field names and
+ * structure are unchanged.
+ *
+ * Kept as a wrapper rather than an ObjectMapper bean so Spring Boot's JSON mapper is untouched.
+ */
+@Component
+public class CompactWireFormat {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType("application/cbor");
+
+    private final ObjectMapper mapper = create();
+
+    public ObjectMapper mapper() {
+        return mapper;
+    }
+
+    public byte[] write(Object value) throws IOException {
+        return mapper.writeValueAsBytes(value);
+    }
+
+    public static ObjectMapper create() {
+        SimpleModule timestamps = new SimpleModule("epoch-millis")
+                .addSerializer(LocalDateTime.class, new JsonSerializer<>() {
+                    @Override
+                    public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+                        gen.writeNumber(value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                    }
+                })
+                .addDeserializer(LocalDateTime.class, new JsonDeserializer<>() {
+                    @Override
+                    public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                        return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), ZoneId.systemDefault());
+                    }
+                });
+
+        return CBORMapper.builder()
+                .addModule(timestamps)
+                .enable(SerializationFeature.WRITE_ENUMS_USING_INDEX)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.smarttask.config;
+
+import com.smarttask.ai.AIProvider;
+import com.smarttask.ai.CircuitBreaker;
+import com.smarttask.ai.ClassificationCache;
+import com.smarttask.ai.ClassificationDictionaryLoader;
+import com.smarttask.ai.RemoteModelAIProvider;
+import com.smarttask.service.BatchClassificationService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the counters that components keep for themselves, so the hot paths only touch
+ * their own adders and atomics and the registry reads them at scrape time.
+ *
+ * HTTP latency (http.server.requests), Hikari pool usage (hikaricp.connections.*), Redis
+ * command latency (lettuce.command.*) and the pools of every ThreadPoolTaskExecutor bean
+ * (executor.*, tagged with the bean name, e.g. clientOutboundChannelExecutor for the STOMP
+ * outbound backlog) come from Spring Boot's auto-configured binders.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder classificationMetrics(ClassificationCache classificationCache,
+                                             ClassificationDictionaryLoader dictionaryLoader,
+                                             BatchClassificationService batchClassificationService) {
+        return registry -> {
+            Gauge.builder("ai.cache.size", classificationCache, ClassificationCache::size)
+                    .description("Classifications held in the text cache")
+                    .register(registry);
+            FunctionCounter.builder("ai.cache.requests", classificationCache, ClassificationCache::getHitCount)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("ai.cache.requests", classificationCache, ClassificationCache::getMissCount)
+                    .tag("result", "miss")
+                    .register(registry);
+
+            Gauge.builder("ai.dictionary.keywords", dictionaryLoader,
+                            loader -> loader.lastReload() != null ? loader.lastReload().keywords() : 0)
+                    .description("Keywords in the active classification dictionary")
+                    .register(registry);
+            Gauge.builder("ai.dictionary.footprint", dictionaryLoader,
+                            loader -> loader.lastReload() != null ? loader.lastReload().footprintBytes() : 0)
+                    .baseUnit("bytes")
+                    .register(registry);
+
+            FunctionCounter.builder("ai.batch.batches", batchClassificationService,
+                            BatchClassificationService::getBatchCount)
+                    .register(registry);
+            FunctionCounter.builder("ai.batch.items", batchClassificationService,
+                            BatchClassificationService::getItemCount)
+                    .register(registry);
+            FunctionCounter.builder("ai.batch.busy", batchClassificationService,
+                            service -> service.getBusyNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                    .description("Wall-clock time spent classifying batches")
+                    .baseUnit("seconds")
+                    .register(registry);
+            new ExecutorServiceMetrics(batchClassificationService.getPool(), "ai.batch", Tags.empty())
+                    .bindTo(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder remoteModelMetrics(AIProvider aiProvider) {
+        return registry -> {
+            if (!(aiProvider instanceof RemoteModelAIProvider remote)) {
+                return;
+            }
+            Gauge.builder("ai.remote.queue.depth", remote, RemoteModelAIProvider::queueDepth)
+                    .description("Prompts waiting for the next remote batch")
+                    .register(registry);
+            for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+                Gauge.builder("ai.remote.circuit.state", remote, provider -> provider.circuitState() == state ? 1 : 0)
+                        .tag("state", state.name().toLowerCase())
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.smarttask.config;
+
+import com.smarttask.exception.NotFoundException;
+import com.smarttask.repository.UserRepository;
+import com.smarttask.service.ProductivityRollupService;
+import com.smarttask.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Operator endpoint that rebuilds one user's productivity rollups from their tasks:
+ * {@code POST /actuator/rollups/{username}} on the management port.
+ */
+@Component
+@Endpoint(id = "rollups")
+@RequiredArgsConstructor
+public class ProductivityRollupEndpoint {
+
+    private final ProductivityRollupService productivityRollupService;
+    private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+
+    @WriteOperation
+    public void backfill(@Selector String username) {
+        shardRouter.runAs(username, () -> productivityRollupService.backfill(userRepository.findByUsername(username)
+                .orElseThrow(() -> NotFoundException.USER)
+                .getId()));
+    }
+}
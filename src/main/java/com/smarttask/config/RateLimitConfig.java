@@ -0,0 +1,56 @@
+package com.smarttask.config;
+
+import com.smarttask.ratelimit.LocalRateLimiter;
+import com.smarttask.ratelimit.RateLimit;
+import com.smarttask.ratelimit.RateLimitPolicy;
+import com.smarttask.ratelimit.RateLimitPolicy.EndpointClass;
+import com.smarttask.ratelimit.RateLimiter;
+import com.smarttask.ratelimit.RedisRateLimiter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Request quotas per user and endpoint class.
+ *
+ * With rate-limit.mode=local (the default) each node keeps its own buckets. With mode=redis
+ * the buckets live in Redis and the quota holds across all nodes.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(ObjectProvider<RedisConnectionFactory> connectionFactory,
+                                   @Value("${rate-limit.mode:local}") String mode,
+                                   @Value("${rate-limit.max-buckets:100000}") int maxBuckets,
+                                   @Value("${rate-limit.sweep-interval-ms:60000}") long sweepIntervalMillis) {
+        LocalRateLimiter local = new LocalRateLimiter(maxBuckets, Duration.ofMillis(sweepIntervalMillis));
+        if (!"redis".equalsIgnoreCase(mode)) {
+            return local;
+        }
+        return new RedisRateLimiter(new StringRedisTemplate(connectionFactory.getObject()), local);
+    }
+
+    @Bean
+    public RateLimitPolicy rateLimitPolicy(@Value("${rate-limit.auth.capacity:10}") int authCapacity,
+                                           @Value("${rate-limit.auth.refill-per-second:0.2}") double authRefill,
+                                           @Value("${rate-limit.ai.capacity:20}") int aiCapacity,
+                                           @Value("${rate-limit.ai.refill-per-second:1}") double aiRefill,
+                                           @Value("${rate-limit.write.capacity:60}") int writeCapacity,
+                                           @Value("${rate-limit.write.refill-per-second:10}") double writeRefill,
+                                           @Value("${rate-limit.read.capacity:120}") int readCapacity,
+                                           @Value("${rate-limit.read.refill-per-second:30}") double readRefill) {
+        return new RateLimitPolicy(Map.of(
+                EndpointClass.AUTH, new RateLimit(authCapacity, authRefill),
+                EndpointClass.AI, new RateLimit(aiCapacity, aiRefill),
+                EndpointClass.WRITE, new RateLimit(writeCapacity, writeRefill),
+                EndpointClass.READ, new RateLimit(readCapacity, readRefill)
+        ));
+    }
+}
@@ -0,0 +1,93 @@
+package com.smarttask.config;
+
+import com.smarttask.sharding.ShardRebalancer;
+import com.smarttask.sharding.ShardRouter;
+import com.smarttask.sharding.ShardRoutingDataSource;
+import com.smarttask.sharding.ShardSchemaInitializer;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits users and their tasks across several databases, one Hikari pool per shard.
+ *
+ * Off by default, in which case Spring Boot's single spring.datasource is used unchanged. With
+ * sharding.enabled=true the databases are listed in sharding.urls and {@link ShardRouter}
+ * places each user on one of them. Pool metrics are published per shard as
+ * hikaricp.connections.* tagged pool=shard-N, and the health endpoint reports every shard.
+ *
+ * AOT-processed builds decide on this configuration at build time; startup fails when
+ * sharding.enabled later disagrees (see {@link StartupConfig}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(ShardRouter shardRouter,
+                                             MeterRegistry meterRegistry,
+                                             @Value("${sharding.urls}") String urls,
+                                             @Value("${sharding.username:${spring.datasource.username:}}") String username,
+                                             @Value("${sharding.password:${spring.datasource.password:}}") String password,
+                                             @Value("${sharding.pool-size:10}") int poolSize) {
+        if (!shardRouter.isEnabled()) {
+            // Only possible in an AOT-processed build, where this configuration's condition is fixed
+            throw new IllegalStateException("sharding.enabled is false, but this build was AOT-processed with "
+                    + "sharding enabled; rebuild it without SHARDING_ENABLED");
+        }
+        List<String> jdbcUrls = ShardRouter.parseUrls(urls);
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (int i = 0; i < jdbcUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName(shardRouter.shards().get(i));
+            config.setJdbcUrl(jdbcUrls.get(i));
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shards.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        return new ShardRoutingDataSource(shards, shardRouter.defaultShard());
+    }
+
+    // By default a session keeps its first connection until it closes, which with open-in-view
+    // pins a whole request to one shard; releasing after each transaction routes every one afresh
+    @Bean
+    public HibernatePropertiesCustomizer shardConnectionHandling() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardRouter shardRouter,
+                                                         ShardRoutingDataSource dataSource,
+                                                         EntityManagerFactory entityManagerFactory,
+                                                         @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return new ShardSchemaInitializer(shardRouter, dataSource, entityManagerFactory, ddlAuto);
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardRouter shardRouter,
+                                           ShardRoutingDataSource dataSource,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${sharding.rebalance.batch-size:100}") int batchSize,
+                                           @Value("${sharding.rebalance.pause-ms:50}") long pauseMillis) {
+        return new ShardRebalancer(shardRouter, dataSource, meterRegistry, batchSize, pauseMillis);
+    }
+}
@@ -0,0 +1,59 @@
+package com.smarttask.config;
+
+import com.smarttask.sharding.ShardRouter;
+import com.smarttask.sharding.ShardRoutingDataSource;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * The faststart profile turns on lazy initialisation, so beans that no request touches (the
+ * H2 console, API docs, unused Redis and actuator beans) are never built at startup. The
+ * beans kept eager here are the ones that would otherwise start late or never: controllers,
+ * so the first request does not pay for the service graph behind them, beans with scheduled
+ * jobs, which are only registered when the bean is created, and beans that load state or
+ * start workers in @PostConstruct or once all singletons exist.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && isEager(beanType);
+    }
+
+    // AOT processing fixes ShardingConfig's condition at build time, while ShardRouter reads
+    // sharding.enabled at run time; without this check every shard would be the one datasource
+    @Bean
+    public SmartInitializingSingleton shardingMatchesBuild(ShardRouter shardRouter,
+                                                           ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource) {
+        return () -> {
+            if (shardRouter.isEnabled() && shardRoutingDataSource.getIfAvailable() == null) {
+                throw new IllegalStateException("sharding.enabled is true, but this build was AOT-processed with "
+                        + "sharding disabled; rebuild it with SHARDING_ENABLED=true");
+            }
+        };
+    }
+
+    static boolean isEager(Class<?> beanType) {
+        return AnnotatedElementUtils.hasAnnotation(beanType, Controller.class)
+                || hasAnnotatedMethod(beanType, Scheduled.class)
+                || hasAnnotatedMethod(beanType, PostConstruct.class)
+                || SmartInitializingSingleton.class.isAssignableFrom(beanType);
+    }
+
+    private static boolean hasAnnotatedMethod(Class<?> beanType, Class<? extends Annotation> annotation) {
+        return !MethodIntrospector.selectMethods(beanType,
+                (ReflectionUtils.MethodFilter) method -> AnnotatedElementUtils.hasAnnotation(method, annotation)).isEmpty();
+    }
+}
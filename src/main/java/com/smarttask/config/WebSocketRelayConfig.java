@@ -0,0 +1,54 @@
+package com.smarttask.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttask.websocket.Backplane;
+import com.smarttask.websocket.InMemoryBackplane;
+import com.smarttask.websocket.RedisBackplane;
+import com.smarttask.websocket.UserMessageRelay;
+import com.smarttask.websocket.WireFormatSender;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Cross-node delivery of user-destination messages.
+ *
+ * With websocket.relay.mode=local (the default) everything stays in memory, which is all a
+ * single node needs. With mode=redis each node advertises its connected users in Redis and
+ * receives messages for them on its own pub/sub channel.
+ */
+@Configuration
+public class WebSocketRelayConfig {
+
+    @Bean
+    public Backplane backplane(ObjectProvider<RedisConnectionFactory> connectionFactory,
+                               @Value("${websocket.relay.mode:local}") String mode,
+                               @Value("${websocket.relay.presence-ttl-ms:90000}") long presenceTtlMillis) {
+        if (!"redis".equalsIgnoreCase(mode)) {
+            return new InMemoryBackplane();
+        }
+        return new RedisBackplane(connectionFactory.getObject(), Duration.ofMillis(presenceTtlMillis));
+    }
+
+    @Bean
+    public WireFormatSender wireFormatSender(SimpMessagingTemplate messagingTemplate,
+                                             ObjectMapper objectMapper,
+                                             CompactWireFormat wireFormat) {
+        return new WireFormatSender(messagingTemplate, objectMapper, wireFormat);
+    }
+
+    @Bean
+    public UserMessageRelay userMessageRelay(Backplane backplane,
+                                             WireFormatSender wireFormatSender,
+                                             ObjectMapper objectMapper,
+                                             @Value("${websocket.relay.node-id:}") String nodeId) {
+        return new UserMessageRelay(nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId,
+                backplane, wireFormatSender, objectMapper);
+    }
+}
@@ -1,15 +1,24 @@
 package com.smarttask.controller;
 
+import com.smarttask.dto.BatchClassifyRequest;
+import com.smarttask.dto.BatchClassifyResponse;
+import com.smarttask.dto.ProductivityTrendResponse;
+import com.smarttask.dto.TaskChangesResponse;
+import com.smarttask.dto.TaskListing;
 import com.smarttask.dto.TaskRequest;
 import com.smarttask.dto.TaskResponse;
 import com.smarttask.entity.Task;
+import com.smarttask.exception.NotFoundException;
 import com.smarttask.repository.TaskRepository;
 import com.smarttask.repository.UserRepository;
 import com.smarttask.service.AIService;
+import com.smarttask.service.BatchClassificationService;
+import com.smarttask.service.ProductivityRollupService;
+import com.smarttask.service.TaskChangeLogService;
 import com.smarttask.service.TaskService;
+import com.smarttask.service.TaskWriteBehindBuffer;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +28,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -27,6 +37,10 @@ public class TaskController {
 
     private final TaskService taskService;
     private final AIService aiService;
+    private final BatchClassificationService batchClassificationService;
+    private final ProductivityRollupService productivityRollupService;
+    private final TaskChangeLogService taskChangeLogService;
+    private final TaskWriteBehindBuffer taskWriteBehindBuffer;
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
 
@@ -36,48 +50,23 @@ public class TaskController {
             @Valid @RequestBody TaskRequest request) {
         
         Long userId = getUserId(userDetails);
-        
-        if (request.getCategory() == null) {
-            String suggestedCategory = aiService.categorizeTask(request.getTitle(), request.getDescription());
-            try {
-                Task.TaskCategory category = Task.TaskCategory.valueOf(suggestedCategory);
-                request.setCategory(category);
-            } catch (IllegalArgumentException e) {
-                request.setCategory(Task.TaskCategory.GENERAL);
-            }
-        }
-        
-        if (request.getPriority() == null) {
-            String suggestedPriority = aiService.suggestPriority(
-                request.getTitle(), 
-                request.getDescription(), 
-                request.getCategory() != null ? request.getCategory().name() : "GENERAL"
-            );
-            try {
-                Task.TaskPriority priority = Task.TaskPriority.valueOf(suggestedPriority);
-                request.setPriority(priority);
-            } catch (IllegalArgumentException e) {
-                request.setPriority(Task.TaskPriority.MEDIUM);
-            }
-        }
-        
         TaskResponse response = taskService.createTask(userId, request);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping
-    public ResponseEntity<Page<TaskResponse>> getAllTasks(
+    public ResponseEntity<TaskListing> getAllTasks(
             @AuthenticationPrincipal UserDetails userDetails,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir) {
         
-        Long userId = getUserId(userDetails);
+        Long userId = getFlushedUserId(userDetails);
         Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         PageRequest pageable = PageRequest.of(page, size, sort);
         
-        Page<TaskResponse> tasks = taskService.getAllTasks(userId, pageable);
+        TaskListing tasks = taskService.getAllTasks(userId, pageable);
         return ResponseEntity.ok(tasks);
     }
 
@@ -86,7 +75,7 @@ public class TaskController {
             @AuthenticationPrincipal UserDetails userDetails,
             @PathVariable Long taskId) {
         
-        Long userId = getUserId(userDetails);
+        Long userId = getFlushedUserId(userDetails);
         TaskResponse task = taskService.getTaskById(userId, taskId);
         return ResponseEntity.ok(task);
     }
@@ -97,7 +86,7 @@ public class TaskController {
             @PathVariable Long taskId,
             @Valid @RequestBody TaskRequest request) {
         
-        Long userId = getUserId(userDetails);
+        Long userId = getFlushedUserId(userDetails);
         TaskResponse task = taskService.updateTask(userId, taskId, request);
         return ResponseEntity.ok(task);
     }
@@ -107,59 +96,68 @@ public class TaskController {
             @AuthenticationPrincipal UserDetails userDetails,
             @PathVariable Long taskId) {
         
-        Long userId = getUserId(userDetails);
+        Long userId = getFlushedUserId(userDetails);
         taskService.deleteTask(userId, taskId);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<TaskResponse>> getTasksByStatus(
+    public ResponseEntity<TaskListing> getTasksByStatus(
             @AuthenticationPrincipal UserDetails userDetails,
             @PathVariable Task.TaskStatus status) {
         
-        Long userId = getUserId(userDetails);
-        List<TaskResponse> tasks = taskService.getTasksByStatus(userId, status);
+        Long userId = getFlushedUserId(userDetails);
+        TaskListing tasks = taskService.getTasksByStatus(userId, status);
         return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<TaskResponse>> getTasksByCategory(
+    public ResponseEntity<TaskListing> getTasksByCategory(
             @AuthenticationPrincipal UserDetails userDetails,
             @PathVariable Task.TaskCategory category) {
         
-        Long userId = getUserId(userDetails);
-        List<TaskResponse> tasks = taskService.getTasksByCategory(userId, category);
+        Long userId = getFlushedUserId(userDetails);
+        TaskListing tasks = taskService.getTasksByCategory(userId, category);
         return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<TaskResponse>> getTasksByPriority(
+    public ResponseEntity<TaskListing> getTasksByPriority(
             @AuthenticationPrincipal UserDetails userDetails,
             @PathVariable Task.TaskPriority priority) {
         
-        Long userId = getUserId(userDetails);
-        List<TaskResponse> tasks = taskService.getTasksByPriority(userId, priority);
+        Long userId = getFlushedUserId(userDetails);
+        TaskListing tasks = taskService.getTasksByPriority(userId, priority);
         return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/overdue")
-    public ResponseEntity<List<TaskResponse>> getOverdueTasks(
+    public ResponseEntity<TaskListing> getOverdueTasks(
             @AuthenticationPrincipal UserDetails userDetails) {
         
-        Long userId = getUserId(userDetails);
-        List<TaskResponse> tasks = taskService.getOverdueTasks(userId);
+        Long userId = getFlushedUserId(userDetails);
+        TaskListing tasks = taskService.getOverdueTasks(userId);
         return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/ordered")
-    public ResponseEntity<List<TaskResponse>> getAllTasksOrdered(
+    public ResponseEntity<TaskListing> getAllTasksOrdered(
             @AuthenticationPrincipal UserDetails userDetails) {
         
-        Long userId = getUserId(userDetails);
-        List<TaskResponse> tasks = taskService.getAllTasksOrdered(userId);
+        Long userId = getFlushedUserId(userDetails);
+        TaskListing tasks = taskService.getAllTasksOrdered(userId);
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesResponse> getChanges(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) Long since) {
+        
+        Long userId = getFlushedUserId(userDetails);
+        return ResponseEntity.ok(taskChangeLogService.getChanges(userId, since));
+    }
+
     @PatchMapping("/{taskId}/status")
     public ResponseEntity<TaskResponse> updateTaskStatus(
             @AuthenticationPrincipal UserDetails userDetails,
@@ -167,7 +165,9 @@ public class TaskController {
             @RequestParam Task.TaskStatus status) {
         
         Long userId = getUserId(userDetails);
-        TaskResponse task = taskService.updateTaskStatus(userId, taskId, status);
+        TaskResponse task = taskWriteBehindBuffer.isEnabled()
+                ? taskWriteBehindBuffer.updateStatus(userId, taskId, status)
+                : taskService.updateTaskStatus(userId, taskId, status);
         return ResponseEntity.ok(task);
     }
 
@@ -178,7 +178,9 @@ public class TaskController {
             @RequestParam Integer position) {
         
         Long userId = getUserId(userDetails);
-        TaskResponse task = taskService.updateTaskPosition(userId, taskId, position);
+        TaskResponse task = taskWriteBehindBuffer.isEnabled()
+                ? taskWriteBehindBuffer.updatePosition(userId, taskId, position)
+                : taskService.updateTaskPosition(userId, taskId, position);
         return ResponseEntity.ok(task);
     }
 
@@ -186,34 +188,37 @@ public class TaskController {
     public ResponseEntity<Map<String, String>> summarizeTasks(
             @AuthenticationPrincipal UserDetails userDetails) {
         
-        Long userId = getUserId(userDetails);
+        Long userId = getFlushedUserId(userDetails);
         List<Task> tasks = taskRepository.findByUserIdOrderByPositionAsc(userId);
         String summary = aiService.generateTaskSummary(tasks);
         return ResponseEntity.ok(Map.of("summary", summary));
     }
 
-    @PostMapping("/{taskId}/ai/suggestion")
-    public ResponseEntity<Map<String, String>> getTaskSuggestion(
+    @PostMapping("/ai/classify")
+    public ResponseEntity<BatchClassifyResponse> classifyTasks(
             @AuthenticationPrincipal UserDetails userDetails,
-            @PathVariable Long taskId) {
+            @Valid @RequestBody BatchClassifyRequest request) {
         
         Long userId = getUserId(userDetails);
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
-        
-        if (!task.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized");
-        }
+        BatchClassifyResponse response = batchClassificationService.classify(userId, request.getItems());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{taskId}/ai/suggestion")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> getTaskSuggestion(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long taskId) {
         
-        String suggestion = aiService.generateTaskSuggestion(task);
-        return ResponseEntity.ok(Map.of("suggestion", suggestion));
+        Long userId = getFlushedUserId(userDetails);
+        return taskService.getTaskSuggestion(userId, taskId)
+                .thenApply(suggestion -> ResponseEntity.ok(Map.of("suggestion", suggestion)));
     }
 
     @PostMapping("/ai/productivity")
     public ResponseEntity<Map<String, String>> analyzeProductivity(
             @AuthenticationPrincipal UserDetails userDetails) {
         
-        Long userId = getUserId(userDetails);
+        Long userId = getFlushedUserId(userDetails);
         List<Task> completedTasks = taskRepository.findByUserIdAndStatus(userId, Task.TaskStatus.COMPLETED);
         List<Task> pendingTasks = taskRepository.findByUserIdAndStatus(userId, Task.TaskStatus.PENDING);
         
@@ -221,9 +226,25 @@ public class TaskController {
         return ResponseEntity.ok(Map.of("analysis", analysis));
     }
 
+    @GetMapping("/ai/trends")
+    public ResponseEntity<ProductivityTrendResponse> getProductivityTrends(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "month") String range) {
+        
+        Long userId = getUserId(userDetails);
+        return ResponseEntity.ok(productivityRollupService.getTrends(userId, range));
+    }
+
     private Long getUserId(UserDetails userDetails) {
         return userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"))
+                .orElseThrow(() -> NotFoundException.USER)
                 .getId();
     }
+
+    // Anything that reads or rewrites the user's tasks first writes their buffered PATCHes
+    private Long getFlushedUserId(UserDetails userDetails) {
+        Long userId = getUserId(userDetails);
+        taskWriteBehindBuffer.flush(userId);
+        return userId;
+    }
 }
@@ -0,0 +1,25 @@
+package com.smarttask.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchClassifyRequest {
+
+    @NotEmpty(message = "Items are required")
+    @Valid
+    private List<Item> items;
+
+    @Data
+    public static class Item {
+
+        @NotBlank(message = "Title is required")
+        private String title;
+
+        private String description;
+    }
+}
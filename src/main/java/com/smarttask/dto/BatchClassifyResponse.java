@@ -0,0 +1,20 @@
+package com.smarttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchClassifyResponse {
+
+    private List<ClassificationResult> results;
+    private int count;
+    private long elapsedMillis;
+    private long itemsPerSecond;
+}
@@ -0,0 +1,6 @@
+package com.smarttask.dto;
+
+import com.smarttask.entity.Task;
+
+public record CategoryProductivity(Task.TaskCategory category, Long created, Long completed, Long overdue) {
+}
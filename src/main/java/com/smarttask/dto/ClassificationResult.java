@@ -0,0 +1,17 @@
+package com.smarttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClassificationResult {
+
+    private String category;
+    private String priority;
+    private String suggestedDeadline;
+}
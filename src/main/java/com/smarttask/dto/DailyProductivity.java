@@ -0,0 +1,6 @@
+package com.smarttask.dto;
+
+import java.time.LocalDate;
+
+public record DailyProductivity(LocalDate date, Long created, Long completed, Long overdue) {
+}
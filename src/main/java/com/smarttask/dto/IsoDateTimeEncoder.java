@@ -0,0 +1,68 @@
+package com.smarttask.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes LocalDateTime values in the same form as DateTimeFormatter.ISO_LOCAL_DATE_TIME, which
+ * is what Jackson produces for them, into a reusable buffer. The date part is only rewritten
+ * when it differs from the previous value, since the timestamps of one listing mostly fall on
+ * a handful of days. Not thread-safe; use one per serialization.
+ */
+public final class IsoDateTimeEncoder {
+
+    private final char[] buffer = new char[29];
+    private int cachedDate = -1;
+
+    public char[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Encodes the value into {@link #buffer()} and returns its length, or -1 for years outside
+     * 0000..9999, which ISO_LOCAL_DATE_TIME writes with a sign.
+     */
+    public int encode(LocalDateTime value) {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            return -1;
+        }
+        int date = year * 10000 + value.getMonthValue() * 100 + value.getDayOfMonth();
+        if (date != cachedDate) {
+            digits(year / 100, 0);
+            digits(year % 100, 2);
+            buffer[4] = '-';
+            digits(value.getMonthValue(), 5);
+            buffer[7] = '-';
+            digits(value.getDayOfMonth(), 8);
+            buffer[10] = 'T';
+            cachedDate = date;
+        }
+        digits(value.getHour(), 11);
+        buffer[13] = ':';
+        digits(value.getMinute(), 14);
+        buffer[16] = ':';
+        digits(value.getSecond(), 17);
+
+        int nano = value.getNano();
+        if (nano == 0) {
+            return 19;
+        }
+        // Fraction with trailing zeros dropped, as ISO_LOCAL_TIME prints it
+        buffer[19] = '.';
+        int length = 29;
+        for (int i = 28; i >= 20; i--) {
+            int digit = nano % 10;
+            nano /= 10;
+            buffer[i] = (char) ('0' + digit);
+            if (digit == 0 && length == i + 1) {
+                length = i;
+            }
+        }
+        return length;
+    }
+
+    private void digits(int value, int offset) {
+        buffer[offset] = (char) ('0' + value / 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
+    }
+}
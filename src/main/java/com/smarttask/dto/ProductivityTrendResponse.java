@@ -0,0 +1,34 @@
+package com.smarttask.dto;
+
+import com.smarttask.entity.Task;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductivityTrendResponse {
+
+    private String range;
+    private LocalDate from;
+    private LocalDate to;
+    private List<Bucket> buckets;
+    private Map<Task.TaskCategory, CategoryProductivity> byCategory;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Bucket {
+        private LocalDate start;
+        private long created;
+        private long completed;
+        private long overdue;
+    }
+}
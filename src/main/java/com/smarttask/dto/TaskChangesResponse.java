@@ -0,0 +1,22 @@
+package com.smarttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangesResponse {
+
+    private long cursor;
+    // The cursor was too old or unknown: upserts holds every task and local state must be replaced
+    private boolean fullResync;
+    private boolean hasMore;
+    private List<TaskResponse> upserts;
+    private List<Long> deletes;
+}
@@ -0,0 +1,19 @@
+package com.smarttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskEvent {
+
+    private Type type;
+    private Long taskId;
+    private TaskResponse task;
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,17 @@
+package com.smarttask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskEventBatch {
+
+    private List<TaskEvent> events;
+    // Number of task changes folded into this frame
+    private int changes;
+}
@@ -0,0 +1,58 @@
+package com.smarttask.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.smarttask.entity.Task;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tasks for a list endpoint, kept as entities. {@link TaskListingSerializer} writes them
+ * straight to the response in the same shape as a {@code List<TaskResponse>} or
+ * {@code Page<TaskResponse>}, without building the DTOs.
+ */
+@JsonSerialize(using = TaskListingSerializer.class)
+public final class TaskListing {
+
+    private final List<Task> tasks;
+    private final Page<Task> page;
+
+    private TaskListing(List<Task> tasks, Page<Task> page) {
+        this.tasks = tasks;
+        this.page = page;
+    }
+
+    public static TaskListing of(List<Task> tasks) {
+        return new TaskListing(tasks, null);
+    }
+
+    public static TaskListing of(Page<Task> page) {
+        return new TaskListing(page.getContent(), page);
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * The page the tasks came from, or null for an unpaged list.
+     */
+    public Page<Task> getPage() {
+        return page;
+    }
+
+    /**
+     * The DTO form, for encodings other than plain JSON.
+     */
+    public Object toResponses() {
+        if (page != null) {
+            return page.map(TaskResponse::fromEntity);
+        }
+        List<TaskResponse> responses = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            responses.add(TaskResponse.fromEntity(task));
+        }
+        return responses;
+    }
+}
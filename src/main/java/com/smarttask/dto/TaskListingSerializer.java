@@ -0,0 +1,232 @@
+package com.smarttask.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.smarttask.entity.Task;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Streams a {@link TaskListing} as JSON with field names and enum values encoded once, and
+ * dates written from a reused buffer, so listing a task allocates next to nothing.
+ *
+ * The output matches what the application's ObjectMapper writes for the same tasks as
+ * TaskResponse DTOs, PageImpl metadata included. When the mapper is configured differently
+ * (CBOR with enum indexes and timestamps, a naming strategy, non-null inclusion) the DTOs are
+ * built and serialized the regular way.
+ */
+public class TaskListingSerializer extends StdSerializer<TaskListing> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString PRIORITY = new SerializedString("priority");
+    private static final SerializedString CATEGORY = new SerializedString("category");
+    private static final SerializedString DUE_DATE = new SerializedString("dueDate");
+    private static final SerializedString COMPLETED_AT = new SerializedString("completedAt");
+    private static final SerializedString AI_SUMMARY = new SerializedString("aiSummary");
+    private static final SerializedString AI_SUGGESTION = new SerializedString("aiSuggestion");
+    private static final SerializedString POSITION = new SerializedString("position");
+    private static final SerializedString USER_ID = new SerializedString("userId");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+
+    private static final SerializedString CONTENT = new SerializedString("content");
+    private static final SerializedString PAGEABLE = new SerializedString("pageable");
+    private static final SerializedString PAGE_NUMBER = new SerializedString("pageNumber");
+    private static final SerializedString PAGE_SIZE = new SerializedString("pageSize");
+    private static final SerializedString SORT = new SerializedString("sort");
+    private static final SerializedString OFFSET = new SerializedString("offset");
+    private static final SerializedString PAGED = new SerializedString("paged");
+    private static final SerializedString UNPAGED = new SerializedString("unpaged");
+    private static final SerializedString LAST = new SerializedString("last");
+    private static final SerializedString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializedString TOTAL_PAGES = new SerializedString("totalPages");
+    private static final SerializedString SIZE = new SerializedString("size");
+    private static final SerializedString NUMBER = new SerializedString("number");
+    private static final SerializedString FIRST = new SerializedString("first");
+    private static final SerializedString NUMBER_OF_ELEMENTS = new SerializedString("numberOfElements");
+    private static final SerializedString EMPTY = new SerializedString("empty");
+    private static final SerializedString SORTED = new SerializedString("sorted");
+    private static final SerializedString UNSORTED = new SerializedString("unsorted");
+
+    private static final SerializedString[] STATUS_NAMES = names(Task.TaskStatus.values());
+    private static final SerializedString[] PRIORITY_NAMES = names(Task.TaskPriority.values());
+    private static final SerializedString[] CATEGORY_NAMES = names(Task.TaskCategory.values());
+
+    public TaskListingSerializer() {
+        super(TaskListing.class);
+    }
+
+    @Override
+    public void serialize(TaskListing listing, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (!writesDefaultJson(provider)) {
+            provider.defaultSerializeValue(listing.toResponses(), gen);
+            return;
+        }
+
+        IsoDateTimeEncoder dates = new IsoDateTimeEncoder();
+        Page<Task> page = listing.getPage();
+        if (page == null) {
+            writeTasks(gen, listing.getTasks(), dates);
+            return;
+        }
+
+        // Same properties as Jackson finds on PageImpl
+        gen.writeStartObject();
+        gen.writeFieldName(CONTENT);
+        writeTasks(gen, page.getContent(), dates);
+        gen.writeFieldName(PAGEABLE);
+        if (page.getPageable() instanceof PageRequest pageable) {
+            gen.writeStartObject();
+            gen.writeFieldName(PAGE_NUMBER);
+            gen.writeNumber(pageable.getPageNumber());
+            gen.writeFieldName(PAGE_SIZE);
+            gen.writeNumber(pageable.getPageSize());
+            gen.writeFieldName(SORT);
+            writeSort(gen, pageable.getSort());
+            gen.writeFieldName(OFFSET);
+            gen.writeNumber(pageable.getOffset());
+            gen.writeFieldName(PAGED);
+            gen.writeBoolean(true);
+            gen.writeFieldName(UNPAGED);
+            gen.writeBoolean(false);
+            gen.writeEndObject();
+        } else {
+            provider.defaultSerializeValue(page.getPageable(), gen);
+        }
+        gen.writeFieldName(LAST);
+        gen.writeBoolean(page.isLast());
+        gen.writeFieldName(TOTAL_ELEMENTS);
+        gen.writeNumber(page.getTotalElements());
+        gen.writeFieldName(TOTAL_PAGES);
+        gen.writeNumber(page.getTotalPages());
+        gen.writeFieldName(SIZE);
+        gen.writeNumber(page.getSize());
+        gen.writeFieldName(NUMBER);
+        gen.writeNumber(page.getNumber());
+        gen.writeFieldName(SORT);
+        writeSort(gen, page.getSort());
+        gen.writeFieldName(FIRST);
+        gen.writeBoolean(page.isFirst());
+        gen.writeFieldName(NUMBER_OF_ELEMENTS);
+        gen.writeNumber(page.getNumberOfElements());
+        gen.writeFieldName(EMPTY);
+        gen.writeBoolean(page.isEmpty());
+        gen.writeEndObject();
+    }
+
+    private static void writeTasks(JsonGenerator gen, List<Task> tasks, IsoDateTimeEncoder dates) throws IOException {
+        gen.writeStartArray(tasks, tasks.size());
+        for (Task task : tasks) {
+            writeTask(gen, task, dates);
+        }
+        gen.writeEndArray();
+    }
+
+    // Field order follows TaskResponse
+    private static void writeTask(JsonGenerator gen, Task task, IsoDateTimeEncoder dates) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        writeNumber(gen, task.getId());
+        gen.writeFieldName(TITLE);
+        gen.writeString(task.getTitle());
+        gen.writeFieldName(DESCRIPTION);
+        gen.writeString(task.getDescription());
+        gen.writeFieldName(STATUS);
+        writeEnum(gen, STATUS_NAMES, task.getStatus());
+        gen.writeFieldName(PRIORITY);
+        writeEnum(gen, PRIORITY_NAMES, task.getPriority());
+        gen.writeFieldName(CATEGORY);
+        writeEnum(gen, CATEGORY_NAMES, task.getCategory());
+        gen.writeFieldName(DUE_DATE);
+        writeDateTime(gen, task.getDueDate(), dates);
+        gen.writeFieldName(COMPLETED_AT);
+        writeDateTime(gen, task.getCompletedAt(), dates);
+        gen.writeFieldName(AI_SUMMARY);
+        gen.writeString(task.getAiSummary());
+        gen.writeFieldName(AI_SUGGESTION);
+        gen.writeString(task.getAiSuggestion());
+        gen.writeFieldName(POSITION);
+        if (task.getPosition() != null) {
+            gen.writeNumber(task.getPosition());
+        } else {
+            gen.writeNull();
+        }
+        gen.writeFieldName(USER_ID);
+        writeNumber(gen, task.getUser().getId());
+        gen.writeFieldName(CREATED_AT);
+        writeDateTime(gen, task.getCreatedAt(), dates);
+        gen.writeFieldName(UPDATED_AT);
+        writeDateTime(gen, task.getUpdatedAt(), dates);
+        gen.writeEndObject();
+    }
+
+    private static void writeSort(JsonGenerator gen, Sort sort) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(EMPTY);
+        gen.writeBoolean(sort.isEmpty());
+        gen.writeFieldName(SORTED);
+        gen.writeBoolean(sort.isSorted());
+        gen.writeFieldName(UNSORTED);
+        gen.writeBoolean(sort.isUnsorted());
+        gen.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator gen, Long value) throws IOException {
+        if (value != null) {
+            gen.writeNumber(value.longValue());
+        } else {
+            gen.writeNull();
+        }
+    }
+
+    private static void writeEnum(JsonGenerator gen, SerializedString[] names, Enum<?> value) throws IOException {
+        if (value != null) {
+            gen.writeString(names[value.ordinal()]);
+        } else {
+            gen.writeNull();
+        }
+    }
+
+    private static void writeDateTime(JsonGenerator gen, LocalDateTime value, IsoDateTimeEncoder dates) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        int length = dates.encode(value);
+        if (length >= 0) {
+            gen.writeString(dates.buffer(), 0, length);
+        } else {
+            gen.writeString(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+    }
+
+    private static boolean writesDefaultJson(SerializerProvider provider) {
+        JsonInclude.Include inclusion = provider.getConfig().getDefaultPropertyInclusion(TaskResponse.class).getValueInclusion();
+        return !provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                && !provider.isEnabled(SerializationFeature.WRITE_ENUMS_USING_INDEX)
+                && !provider.isEnabled(SerializationFeature.WRITE_ENUMS_USING_TO_STRING)
+                && provider.getConfig().getPropertyNamingStrategy() == null
+                && (inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS);
+    }
+
+    private static SerializedString[] names(Enum<?>[] values) {
+        SerializedString[] names = new SerializedString[values.length];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = new SerializedString(value.name());
+        }
+        return names;
+    }
+}
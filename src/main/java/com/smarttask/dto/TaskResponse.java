@@ -1,6 +1,7 @@
 package com.smarttask.dto;
 
 import com.smarttask.entity.Task;
+import com.smarttask.timing.RequestTiming;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,7 +10,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class TaskResponse {
@@ -30,21 +31,26 @@ public class TaskResponse {
     private LocalDateTime updatedAt;
 
     public static TaskResponse fromEntity(Task task) {
-        return TaskResponse.builder()
-                .id(task.getId())
-                .title(task.getTitle())
-                .description(task.getDescription())
-                .status(task.getStatus())
-                .priority(task.getPriority())
-                .category(task.getCategory())
-                .dueDate(task.getDueDate())
-                .completedAt(task.getCompletedAt())
-                .aiSummary(task.getAiSummary())
-                .aiSuggestion(task.getAiSuggestion())
-                .position(task.getPosition())
-                .userId(task.getUser().getId())
-                .createdAt(task.getCreatedAt())
-                .updatedAt(task.getUpdatedAt())
-                .build();
+        long start = RequestTiming.start();
+        try {
+            return TaskResponse.builder()
+                    .id(task.getId())
+                    .title(task.getTitle())
+                    .description(task.getDescription())
+                    .status(task.getStatus())
+                    .priority(task.getPriority())
+                    .category(task.getCategory())
+                    .dueDate(task.getDueDate())
+                    .completedAt(task.getCompletedAt())
+                    .aiSummary(task.getAiSummary())
+                    .aiSuggestion(task.getAiSuggestion())
+                    .position(task.getPosition())
+                    .userId(task.getUser().getId())
+                    .createdAt(task.getCreatedAt())
+                    .updatedAt(task.getUpdatedAt())
+                    .build();
+        } finally {
+            RequestTiming.stop(RequestTiming.Phase.MAP, start);
+        }
     }
 }
@@ -0,0 +1,28 @@
+package com.smarttask.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reserves an e-mail address for one user. Kept only on the default shard, so its primary key
+ * makes e-mail addresses unique across all shards, unlike the per-shard constraint on users.
+ */
+@Entity
+@Table(name = "email_claims")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailClaim {
+
+    @Id
+    @Column(length = 100)
+    private String email;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+}
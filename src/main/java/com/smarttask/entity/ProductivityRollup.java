@@ -0,0 +1,51 @@
+package com.smarttask.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Daily per-user task counts for one category/priority combination. Maintained incrementally
+ * from task changes, so trends never have to scan the tasks table.
+ */
+@Entity
+@Table(name = "productivity_rollups",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "bucket_date", "category", "priority"}),
+        indexes = @Index(name = "idx_rollup_user_date", columnList = "user_id, bucket_date"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductivityRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Task.TaskCategory category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Task.TaskPriority priority;
+
+    @Builder.Default
+    private int createdCount = 0;
+
+    @Builder.Default
+    private int completedCount = 0;
+
+    @Builder.Default
+    private int overdueCount = 0;
+}
@@ -0,0 +1,48 @@
+package com.smarttask.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a user's task change log. {@code seq} is the user's change sequence at the time
+ * of the change; a DELETE entry is a tombstone for a task that no longer exists.
+ */
+@Entity
+@Table(name = "task_changes",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "seq"}),
+        indexes = @Index(name = "idx_task_change_user_task", columnList = "user_id, task_id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long seq;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Type type;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    public enum Type {
+        UPSERT, DELETE
+    }
+}
@@ -0,0 +1,11 @@
+package com.smarttask.event;
+
+import com.smarttask.entity.Task;
+
+/**
+ * Published when a user changes the category of an existing task, which is treated as a
+ * correction of whatever category the task had before.
+ */
+public record TaskCategoryCorrectedEvent(Long userId, String title, String description,
+                                         Task.TaskCategory previousCategory, Task.TaskCategory category) {
+}
@@ -0,0 +1,31 @@
+package com.smarttask.event;
+
+import com.smarttask.dto.TaskResponse;
+
+/**
+ * Published for every task mutation. {@code before} is null for creates and {@code after} is
+ * null for deletes. Listeners that must only see committed changes should use
+ * {@code @TransactionalEventListener}.
+ */
+public record TaskChangedEvent(Long userId, Long taskId, TaskResponse before, TaskResponse after) {
+
+    public static TaskChangedEvent created(TaskResponse task) {
+        return new TaskChangedEvent(task.getUserId(), task.getId(), null, task);
+    }
+
+    public static TaskChangedEvent updated(TaskResponse before, TaskResponse after) {
+        return new TaskChangedEvent(after.getUserId(), after.getId(), before, after);
+    }
+
+    public static TaskChangedEvent deleted(TaskResponse task) {
+        return new TaskChangedEvent(task.getUserId(), task.getId(), task, null);
+    }
+
+    public boolean isCreate() {
+        return before == null;
+    }
+
+    public boolean isDelete() {
+        return after == null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.smarttask.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a task is created, or edited so that its AI summary no longer fits. The flags
+ * say which fields were left for the AI to fill in rather than chosen by the user. Category and
+ * priority are only inferred while the task still has {@code version} as its updatedAt; a null
+ * version means the task's state when enrichment starts.
+ */
+public record TaskEnrichmentRequestedEvent(Long taskId, Long userId, boolean inferCategory, boolean inferPriority,
+                                           LocalDateTime version) {
+
+    public static TaskEnrichmentRequestedEvent refresh(Long taskId, Long userId) {
+        return new TaskEnrichmentRequestedEvent(taskId, userId, false, false, null);
+    }
+}
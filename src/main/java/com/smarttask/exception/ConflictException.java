@@ -0,0 +1,13 @@
+package com.smarttask.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ConflictException extends DomainException {
+
+    public static final ConflictException USERNAME_TAKEN = new ConflictException("Username already exists");
+    public static final ConflictException EMAIL_TAKEN = new ConflictException("Email already exists");
+
+    public ConflictException(String message) {
+        super(HttpStatus.CONFLICT, message);
+    }
+}
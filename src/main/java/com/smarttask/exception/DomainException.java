@@ -0,0 +1,30 @@
+package com.smarttask.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.Map;
+
+/**
+ * Expected failures such as a missing task or a taken username. They are part of normal
+ * traffic, so no stack trace is captured and the error body is built once per instance.
+ * Instances carry no per-request state and the common ones are shared constants.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final Map<String, Object> body;
+
+    protected DomainException(HttpStatus status, String message) {
+        super(message, null, false, false);
+        this.status = status;
+        this.body = Map.of("status", status.value(), "message", message);
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public Map<String, Object> getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,14 @@
+package com.smarttask.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ForbiddenException extends DomainException {
+
+    public static final ForbiddenException TASK_ACCESS = new ForbiddenException("Unauthorized to access this task");
+    public static final ForbiddenException TASK_UPDATE = new ForbiddenException("Unauthorized to update this task");
+    public static final ForbiddenException TASK_DELETE = new ForbiddenException("Unauthorized to delete this task");
+
+    public ForbiddenException(String message) {
+        super(HttpStatus.FORBIDDEN, message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.smarttask.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class NotFoundException extends DomainException {
+
+    public static final NotFoundException TASK = new NotFoundException("Task not found");
+    public static final NotFoundException USER = new NotFoundException("User not found");
+
+    public NotFoundException(String message) {
+        super(HttpStatus.NOT_FOUND, message);
+    }
+}
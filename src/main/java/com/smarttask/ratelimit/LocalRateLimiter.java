@@ -0,0 +1,93 @@
+package com.smarttask.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets, lock-free.
+ *
+ * Each bucket is a single theoretical arrival time (GCRA): taking a token advances it by one
+ * refill interval, and a request is rejected when it would run more than a full bucket ahead
+ * of now. That is one CAS per request, and a bucket whose arrival time is in the past is full
+ * and indistinguishable from a missing one, so it can be dropped at any time. Such idle
+ * buckets are swept periodically, and whenever the map reaches {@code maxBuckets}; if it is
+ * still full, new keys share one overflow bucket per limit until space frees up.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final int maxBuckets;
+    private final long sweepIntervalNanos;
+    private final LongSupplier clock;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Map<RateLimit, AtomicLong> overflow = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep;
+
+    public LocalRateLimiter(int maxBuckets, Duration sweepInterval) {
+        this(maxBuckets, sweepInterval, System::nanoTime);
+    }
+
+    public LocalRateLimiter(int maxBuckets, Duration sweepInterval, LongSupplier clock) {
+        this.maxBuckets = maxBuckets;
+        this.sweepIntervalNanos = sweepInterval.toNanos();
+        this.clock = clock;
+        this.lastSweep = new AtomicLong(clock.getAsLong());
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, RateLimit limit) {
+        long now = clock.getAsLong();
+        sweepIfDue(now);
+        AtomicLong bucket = bucket(key, limit, now);
+
+        long interval = limit.intervalNanos();
+        long tolerance = limit.toleranceNanos();
+        while (true) {
+            long tat = bucket.get();
+            long ahead = Math.max(tat - now, 0) + interval;
+            if (ahead > tolerance) {
+                return RateLimitDecision.rejected(limit, ahead);
+            }
+            if (bucket.compareAndSet(tat, now + ahead)) {
+                return RateLimitDecision.allowed(limit, ahead);
+            }
+            now = clock.getAsLong();
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Drops every bucket that has refilled completely.
+     */
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    private AtomicLong bucket(String key, RateLimit limit, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxBuckets) {
+            evictIdle();
+            if (buckets.size() >= maxBuckets) {
+                return overflow.computeIfAbsent(limit, l -> new AtomicLong(now));
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private void sweepIfDue(long now) {
+        long last = lastSweep.get();
+        if (now - last >= sweepIntervalNanos && lastSweep.compareAndSet(last, now)) {
+            evictIdle();
+        }
+    }
+}
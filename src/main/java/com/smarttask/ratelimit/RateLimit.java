@@ -0,0 +1,19 @@
+package com.smarttask.ratelimit;
+
+/**
+ * A token bucket holding up to {@code capacity} requests and refilling at
+ * {@code refillPerSecond}.
+ */
+public record RateLimit(int capacity, double refillPerSecond) {
+
+    public long intervalNanos() {
+        return (long) (1_000_000_000L / refillPerSecond);
+    }
+
+    /**
+     * How far the bucket's theoretical arrival time may run ahead of now, i.e. a full bucket.
+     */
+    public long toleranceNanos() {
+        return intervalNanos() * capacity;
+    }
+}
@@ -0,0 +1,18 @@
+package com.smarttask.ratelimit;
+
+/**
+ * Outcome of one acquire. {@code resetNanos} is the time until the bucket is full again;
+ * {@code retryAfterNanos} is zero for allowed requests.
+ */
+public record RateLimitDecision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {
+
+    static RateLimitDecision allowed(RateLimit limit, long aheadNanos) {
+        int remaining = (int) ((limit.toleranceNanos() - aheadNanos) / limit.intervalNanos());
+        return new RateLimitDecision(true, limit.capacity(), remaining, aheadNanos, 0);
+    }
+
+    static RateLimitDecision rejected(RateLimit limit, long aheadNanos) {
+        return new RateLimitDecision(false, limit.capacity(), 0, aheadNanos - limit.intervalNanos(),
+                aheadNanos - limit.toleranceNanos());
+    }
+}
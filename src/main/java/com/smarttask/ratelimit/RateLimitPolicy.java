@@ -0,0 +1,40 @@
+package com.smarttask.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sorts requests into endpoint classes, each with its own bucket per user.
+ */
+public class RateLimitPolicy {
+
+    public enum EndpointClass {
+        AUTH, AI, WRITE, READ
+    }
+
+    private final Map<EndpointClass, RateLimit> limits;
+
+    public RateLimitPolicy(Map<EndpointClass, RateLimit> limits) {
+        this.limits = new EnumMap<>(limits);
+    }
+
+    public EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/auth/")) {
+            return EndpointClass.AUTH;
+        }
+        // Collection endpoints such as /api/tasks/ai/... and per-task ones such as
+        // /api/tasks/{id}/ai/suggestion alike
+        if (path.startsWith("/api/tasks/") && (path.contains("/ai/") || path.endsWith("/ai"))) {
+            return EndpointClass.AI;
+        }
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) ? EndpointClass.READ : EndpointClass.WRITE;
+    }
+
+    public RateLimit limitFor(EndpointClass endpointClass) {
+        return limits.get(endpointClass);
+    }
+}
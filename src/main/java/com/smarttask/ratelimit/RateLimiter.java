@@ -0,0 +1,10 @@
+package com.smarttask.ratelimit;
+
+public interface RateLimiter {
+
+    /**
+     * Takes one token from the bucket identified by {@code key}, creating a full bucket if
+     * there is none.
+     */
+    RateLimitDecision tryAcquire(String key, RateLimit limit);
+}
@@ -0,0 +1,71 @@
+package com.smarttask.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cluster-wide buckets in Redis. The same GCRA step as {@link LocalRateLimiter} runs as one
+ * script against Redis' clock, so every node shares the quota; each key expires once its
+ * bucket is full again. While Redis is unreachable, requests are limited per node by the
+ * local fallback instead of being let through unchecked.
+ */
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    // Times in microseconds; returns {allowed, ahead}
+    private static final RedisScript<List> ACQUIRE = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local interval = tonumber(ARGV[1])
+            local tolerance = tonumber(ARGV[2])
+            local tat = tonumber(redis.call('GET', KEYS[1]) or now)
+            local ahead = math.max(tat - now, 0) + interval
+            if ahead > tolerance then
+              return {0, ahead}
+            end
+            redis.call('SET', KEYS[1], now + ahead, 'PX', math.ceil(ahead / 1000))
+            return {1, ahead}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RateLimiter fallback;
+    private final AtomicBoolean degraded = new AtomicBoolean();
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate, RateLimiter fallback) {
+        this.redisTemplate = redisTemplate;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, RateLimit limit) {
+        List<?> result;
+        try {
+            result = redisTemplate.execute(ACQUIRE, List.of(KEY_PREFIX + key),
+                    Long.toString(TimeUnit.NANOSECONDS.toMicros(limit.intervalNanos())),
+                    Long.toString(TimeUnit.NANOSECONDS.toMicros(limit.toleranceNanos())));
+        } catch (RuntimeException e) {
+            if (degraded.compareAndSet(false, true)) {
+                log.warn("Redis rate limiter unavailable, limiting per node until it recovers", e);
+            }
+            return fallback.tryAcquire(key, limit);
+        }
+        if (degraded.compareAndSet(true, false)) {
+            log.info("Redis rate limiter recovered");
+        }
+
+        long ahead = TimeUnit.MICROSECONDS.toNanos(((Number) result.get(1)).longValue());
+        return ((Number) result.get(0)).longValue() == 1
+                ? RateLimitDecision.allowed(limit, ahead)
+                : RateLimitDecision.rejected(limit, ahead);
+    }
+}
@@ -0,0 +1,19 @@
+package com.smarttask.repository;
+
+import com.smarttask.entity.EmailClaim;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface EmailClaimRepository extends JpaRepository<EmailClaim, String> {
+
+    // A plain insert, never a merge, so a taken address fails instead of being reassigned
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO email_claims (email, username) VALUES (:email, :username)", nativeQuery = true)
+    int claim(@Param("email") String email, @Param("username") String username);
+}
@@ -0,0 +1,52 @@
+package com.smarttask.repository;
+
+import com.smarttask.dto.CategoryProductivity;
+import com.smarttask.dto.DailyProductivity;
+import com.smarttask.entity.ProductivityRollup;
+import com.smarttask.entity.Task;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProductivityRollupRepository extends JpaRepository<ProductivityRollup, Long> {
+
+    // Increments in the database, so replicas flushing the same row add up instead of overwriting
+    @Modifying
+    @Query("UPDATE ProductivityRollup r SET r.createdCount = r.createdCount + :created, " +
+            "r.completedCount = r.completedCount + :completed " +
+            "WHERE r.userId = :userId AND r.bucketDate = :day AND r.category = :category AND r.priority = :priority")
+    int addCounts(@Param("userId") Long userId, @Param("day") LocalDate day,
+                  @Param("category") Task.TaskCategory category, @Param("priority") Task.TaskPriority priority,
+                  @Param("created") int created, @Param("completed") int completed);
+
+    @Modifying
+    @Query("UPDATE ProductivityRollup r SET r.overdueCount = :overdue " +
+            "WHERE r.userId = :userId AND r.bucketDate = :day AND r.category = :category AND r.priority = :priority")
+    int setOverdueCount(@Param("userId") Long userId, @Param("day") LocalDate day,
+                        @Param("category") Task.TaskCategory category, @Param("priority") Task.TaskPriority priority,
+                        @Param("overdue") int overdue);
+
+    @Modifying
+    @Query("UPDATE ProductivityRollup r SET r.overdueCount = 0 WHERE r.bucketDate = :day AND r.overdueCount <> 0")
+    int clearOverdueCounts(@Param("day") LocalDate day);
+
+    @Query("SELECT new com.smarttask.dto.DailyProductivity(r.bucketDate, SUM(r.createdCount), SUM(r.completedCount), SUM(r.overdueCount)) " +
+            "FROM ProductivityRollup r WHERE r.userId = :userId AND r.bucketDate BETWEEN :from AND :to " +
+            "GROUP BY r.bucketDate ORDER BY r.bucketDate")
+    List<DailyProductivity> sumByDay(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.smarttask.dto.CategoryProductivity(r.category, SUM(r.createdCount), SUM(r.completedCount), SUM(r.overdueCount)) " +
+            "FROM ProductivityRollup r WHERE r.userId = :userId AND r.bucketDate BETWEEN :from AND :to " +
+            "GROUP BY r.category")
+    List<CategoryProductivity> sumByCategory(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM ProductivityRollup r WHERE r.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
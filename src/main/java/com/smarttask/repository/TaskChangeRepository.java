@@ -0,0 +1,32 @@
+package com.smarttask.repository;
+
+import com.smarttask.entity.TaskChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskChangeRepository extends JpaRepository<TaskChange, Long> {
+
+    @Query("SELECT c FROM TaskChange c WHERE c.userId = :userId AND c.seq > :since ORDER BY c.seq ASC")
+    List<TaskChange> findSince(@Param("userId") Long userId, @Param("since") Long since, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM TaskChange c WHERE EXISTS (SELECT 1 FROM TaskChange n " +
+            "WHERE n.userId = c.userId AND n.taskId = c.taskId AND n.seq > c.seq)")
+    int deleteSuperseded();
+
+    @Query("SELECT c.userId, MAX(c.seq) FROM TaskChange c WHERE c.type = com.smarttask.entity.TaskChange.Type.DELETE " +
+            "AND c.changedAt < :cutoff GROUP BY c.userId")
+    List<Object[]> findTombstoneHorizon(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM TaskChange c WHERE c.type = com.smarttask.entity.TaskChange.Type.DELETE AND c.changedAt < :cutoff")
+    int deleteTombstonesBefore(@Param("cutoff") LocalDateTime cutoff);
+}
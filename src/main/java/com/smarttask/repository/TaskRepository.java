@@ -4,9 +4,11 @@ import com.smarttask.entity.Task;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -33,4 +35,47 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
 
     @Query("SELECT t FROM Task t WHERE t.user.id = :userId ORDER BY t.position ASC")
     List<Task> findByUserIdOrderByPositionAsc(@Param("userId") Long userId);
+
+    @Query("SELECT t.user.id, t.category, t.priority, COUNT(t) FROM Task t " +
+            "WHERE t.dueDate >= :dayStart AND t.dueDate < :dayEnd AND (t.completedAt IS NULL OR t.completedAt >= :dayEnd) " +
+            "GROUP BY t.user.id, t.category, t.priority")
+    List<Object[]> countOverdueOn(@Param("dayStart") LocalDateTime dayStart, @Param("dayEnd") LocalDateTime dayEnd);
+
+    // Only while the task is still as it was read before the AI call, so no edit is overwritten
+    @Modifying
+    @Query("UPDATE Task t SET t.category = :category, t.priority = :priority, " +
+            "t.aiSummary = COALESCE(t.aiSummary, :summary), t.aiSuggestion = COALESCE(t.aiSuggestion, :suggestion), " +
+            "t.updatedAt = :updatedAt WHERE t.id = :taskId AND t.updatedAt = :readAt")
+    int applyEnrichment(@Param("taskId") Long taskId,
+                        @Param("category") Task.TaskCategory category,
+                        @Param("priority") Task.TaskPriority priority,
+                        @Param("summary") String summary,
+                        @Param("suggestion") String suggestion,
+                        @Param("updatedAt") LocalDateTime updatedAt,
+                        @Param("readAt") LocalDateTime readAt);
+
+    // Only the columns the write-behind buffer owns, so edits to any other column since the read survive
+    @Modifying
+    @Query("UPDATE Task t SET " +
+            "t.status = CASE WHEN :setStatus = true THEN :status ELSE t.status END, " +
+            "t.completedAt = CASE WHEN :setStatus = true THEN :completedAt ELSE t.completedAt END, " +
+            "t.position = CASE WHEN :setPosition = true THEN :position ELSE t.position END, " +
+            "t.updatedAt = :updatedAt WHERE t.id = :taskId AND t.user.id = :userId")
+    int applyBuffered(@Param("taskId") Long taskId,
+                      @Param("userId") Long userId,
+                      @Param("setStatus") boolean setStatus,
+                      @Param("status") Task.TaskStatus status,
+                      @Param("completedAt") LocalDateTime completedAt,
+                      @Param("setPosition") boolean setPosition,
+                      @Param("position") Integer position,
+                      @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Fills an empty suggestion only; an edit or another writer since the read wins
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.aiSuggestion = :suggestion " +
+            "WHERE t.id = :taskId AND t.aiSuggestion IS NULL AND t.updatedAt = :readAt")
+    int updateAiSuggestion(@Param("taskId") Long taskId,
+                           @Param("suggestion") String suggestion,
+                           @Param("readAt") LocalDateTime readAt);
 }
@@ -2,8 +2,12 @@ package com.smarttask.repository;
 
 import com.smarttask.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +20,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
 
     Boolean existsByEmail(String email);
+
+    @Query("SELECT u.id FROM User u")
+    List<Long> findAllIds();
+
+    // The row lock taken here orders concurrent changes of one user by commit
+    @Modifying
+    @Query("UPDATE User u SET u.changeSeq = u.changeSeq + 1 WHERE u.id = :userId")
+    int incrementChangeSeq(@Param("userId") Long userId);
+
+    @Query("SELECT u.changeSeq FROM User u WHERE u.id = :userId")
+    Long findChangeSeq(@Param("userId") Long userId);
+
+    @Query("SELECT u.changeFloor FROM User u WHERE u.id = :userId")
+    Long findChangeFloor(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.changeFloor = :floor WHERE u.id = :userId AND u.changeFloor < :floor")
+    int raiseChangeFloor(@Param("userId") Long userId, @Param("floor") Long floor);
 }
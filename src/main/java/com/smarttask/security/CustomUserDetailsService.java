@@ -2,7 +2,10 @@ package com.smarttask.security;
 
 import com.smarttask.entity.User;
 import com.smarttask.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.smarttask.sharding.ShardRouter;
+import com.smarttask.timing.RequestTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,15 +15,32 @@ import org.springframework.stereotype.Service;
 import java.util.Collections;
 
 @Service
-@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final Timer lookupTimer;
+
+    public CustomUserDetailsService(UserRepository userRepository, ShardRouter shardRouter, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.shardRouter = shardRouter;
+        this.lookupTimer = Timer.builder("security.user.lookup")
+                .description("Time to load a user by username, including misses")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        long start = RequestTiming.start();
+        User user;
+        try {
+            // Runs before the request's shard is bound, so it routes by the name itself
+            user = lookupTimer.record(() -> shardRouter.callAs(username, () -> userRepository.findByUsername(username)))
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        } finally {
+            RequestTiming.stop(RequestTiming.Phase.USER, start);
+        }
 
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
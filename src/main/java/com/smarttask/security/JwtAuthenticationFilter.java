@@ -1,5 +1,6 @@
 package com.smarttask.security;
 
+import com.smarttask.timing.RequestTiming;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,6 +27,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
+        long authStart = RequestTiming.start();
         try {
             String jwt = extractJwtFromRequest(request);
 
@@ -45,6 +47,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
+        } finally {
+            RequestTiming.stop(RequestTiming.Phase.AUTH, authStart);
         }
 
         filterChain.doFilter(request, response);
@@ -2,6 +2,8 @@ package com.smarttask.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -10,6 +12,7 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -21,6 +24,18 @@ public class JwtHelper {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    private final Timer parseTimer;
+    private final Timer signTimer;
+
+    public JwtHelper(MeterRegistry meterRegistry) {
+        this.parseTimer = Timer.builder("jwt.parse")
+                .description("Time to verify a token signature and parse its claims")
+                .register(meterRegistry);
+        this.signTimer = Timer.builder("jwt.sign")
+                .description("Time to build and sign a token")
+                .register(meterRegistry);
+    }
+
     private SecretKey getSigningKey() {
         return Keys.hmacShaKeyFor(secret.getBytes());
     }
@@ -39,11 +54,16 @@ public class JwtHelper {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        long start = System.nanoTime();
+        try {
+            return Jwts.parser()
+                    .verifyWith(getSigningKey())
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        } finally {
+            parseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     private Boolean isTokenExpired(String token) {
@@ -56,13 +76,13 @@ public class JwtHelper {
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
+        return signTimer.record(() -> Jwts.builder()
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(getSigningKey())
-                .compact();
+                .compact());
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
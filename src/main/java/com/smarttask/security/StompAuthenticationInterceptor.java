@@ -0,0 +1,61 @@
+package com.smarttask.security;
+
+import com.smarttask.exception.NotFoundException;
+import com.smarttask.repository.UserRepository;
+import com.smarttask.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Authenticates STOMP sessions from the {@code Authorization: Bearer} header of the CONNECT
+ * frame. The session principal is named by user id, which is how WebSocketService addresses
+ * user destinations. Connections without a token stay anonymous; an invalid token is rejected.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+    private final JwtHelper jwtHelper;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+
+        String bearerToken = accessor.getFirstNativeHeader("Authorization");
+        if (!StringUtils.hasText(bearerToken) || !bearerToken.startsWith("Bearer ")) {
+            return message;
+        }
+
+        try {
+            String jwt = bearerToken.substring(7);
+            UserDetails userDetails = userDetailsService.loadUserByUsername(jwtHelper.extractUsername(jwt));
+            if (jwtHelper.validateToken(jwt, userDetails)) {
+                String username = userDetails.getUsername();
+                Long userId = shardRouter.callAs(username, () -> userRepository.findByUsername(username))
+                        .orElseThrow(() -> NotFoundException.USER)
+                        .getId();
+                accessor.setUser(new UsernamePasswordAuthenticationToken(userId.toString(), null, userDetails.getAuthorities()));
+                return message;
+            }
+        } catch (Exception ex) {
+            throw new MessageDeliveryException(message, "Invalid token", ex);
+        }
+        throw new MessageDeliveryException(message, "Invalid token");
+    }
+}
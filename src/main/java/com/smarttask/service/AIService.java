@@ -1,116 +1,90 @@
 package com.smarttask.service;
 
+import com.smarttask.ai.ClassificationCache;
+import com.smarttask.ai.ClassificationDictionaryLoader;
 import com.smarttask.entity.Task;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * Rule-based classification and summaries. Each public entry point is timed under
+ * ai.classifier with a method tag; the overloads share one timer, and calls between them
+ * are only recorded once.
+ */
 @Service
 public class AIService {
 
-    // Keyword mappings for categorization
-    private static final Map<String, Task.TaskCategory> CATEGORY_KEYWORDS = new HashMap<>();
-    
-    static {
-        // Work-related keywords
-        CATEGORY_KEYWORDS.put("meeting", Task.TaskCategory.WORK);
-        CATEGORY_KEYWORDS.put("project", Task.TaskCategory.WORK);
-        CATEGORY_KEYWORDS.put("deadline", Task.TaskCategory.WORK);
-        CATEGORY_KEYWORDS.put("client", Task.TaskCategory.WORK);
-        CATEGORY_KEYWORDS.put("presentation", Task.TaskCategory.WORK);
-        CATEGORY_KEYWORDS.put("report", Task.TaskCategory.WORK);
-        CATEGORY_KEYWORDS.put("email", Task.TaskCategory.WORK);
-        CATEGORY_KEYWORDS.put("office", Task.TaskCategory.WORK);
-        
-        // Health-related keywords
-        CATEGORY_KEYWORDS.put("exercise", Task.TaskCategory.HEALTH);
-        CATEGORY_KEYWORDS.put("workout", Task.TaskCategory.HEALTH);
-        CATEGORY_KEYWORDS.put("gym", Task.TaskCategory.HEALTH);
-        CATEGORY_KEYWORDS.put("doctor", Task.TaskCategory.HEALTH);
-        CATEGORY_KEYWORDS.put("medicine", Task.TaskCategory.HEALTH);
-        CATEGORY_KEYWORDS.put("appointment", Task.TaskCategory.HEALTH);
-        CATEGORY_KEYWORDS.put("health", Task.TaskCategory.HEALTH);
-        
-        // Personal-related keywords
-        CATEGORY_KEYWORDS.put("birthday", Task.TaskCategory.PERSONAL);
-        CATEGORY_KEYWORDS.put("family", Task.TaskCategory.PERSONAL);
-        CATEGORY_KEYWORDS.put("friend", Task.TaskCategory.PERSONAL);
-        CATEGORY_KEYWORDS.put("home", Task.TaskCategory.PERSONAL);
-        
-        // Learning-related keywords
-        CATEGORY_KEYWORDS.put("study", Task.TaskCategory.LEARNING);
-        CATEGORY_KEYWORDS.put("learn", Task.TaskCategory.LEARNING);
-        CATEGORY_KEYWORDS.put("course", Task.TaskCategory.LEARNING);
-        CATEGORY_KEYWORDS.put("book", Task.TaskCategory.LEARNING);
-        CATEGORY_KEYWORDS.put("tutorial", Task.TaskCategory.LEARNING);
-        CATEGORY_KEYWORDS.put("training", Task.TaskCategory.LEARNING);
-        CATEGORY_KEYWORDS.put("exam", Task.TaskCategory.LEARNING);
-        
-        // Shopping-related keywords
-        CATEGORY_KEYWORDS.put("buy", Task.TaskCategory.SHOPPING);
-        CATEGORY_KEYWORDS.put("shop", Task.TaskCategory.SHOPPING);
-        CATEGORY_KEYWORDS.put("grocery", Task.TaskCategory.SHOPPING);
-        CATEGORY_KEYWORDS.put("purchase", Task.TaskCategory.SHOPPING);
-        
-        // Finance-related keywords
-        CATEGORY_KEYWORDS.put("bill", Task.TaskCategory.FINANCE);
-        CATEGORY_KEYWORDS.put("payment", Task.TaskCategory.FINANCE);
-        CATEGORY_KEYWORDS.put("invoice", Task.TaskCategory.FINANCE);
-        CATEGORY_KEYWORDS.put("tax", Task.TaskCategory.FINANCE);
-        CATEGORY_KEYWORDS.put("budget", Task.TaskCategory.FINANCE);
-        CATEGORY_KEYWORDS.put("money", Task.TaskCategory.FINANCE);
-        
-        // Social-related keywords
-        CATEGORY_KEYWORDS.put("party", Task.TaskCategory.SOCIAL);
-        CATEGORY_KEYWORDS.put("event", Task.TaskCategory.SOCIAL);
-        CATEGORY_KEYWORDS.put("wedding", Task.TaskCategory.SOCIAL);
-        CATEGORY_KEYWORDS.put("hangout", Task.TaskCategory.SOCIAL);
+    private final ClassificationDictionaryLoader dictionaryLoader;
+    private final CategoryLearningService categoryLearningService;
+    private final ClassificationCache classificationCache;
+    private final CompletionTimeService completionTimeService;
+
+    private final Timer categorizeTimer;
+    private final Timer priorityTimer;
+    private final Timer deadlineTimer;
+    private final Timer summaryTimer;
+
+    public AIService(ClassificationDictionaryLoader dictionaryLoader,
+                     CategoryLearningService categoryLearningService,
+                     ClassificationCache classificationCache,
+                     CompletionTimeService completionTimeService,
+                     MeterRegistry meterRegistry) {
+        this.dictionaryLoader = dictionaryLoader;
+        this.categoryLearningService = categoryLearningService;
+        this.classificationCache = classificationCache;
+        this.completionTimeService = completionTimeService;
+        this.categorizeTimer = classifierTimer("categorize", meterRegistry);
+        this.priorityTimer = classifierTimer("priority", meterRegistry);
+        this.deadlineTimer = classifierTimer("deadline", meterRegistry);
+        this.summaryTimer = classifierTimer("summary", meterRegistry);
     }
 
-    // Priority keywords
-    private static final Map<String, Task.TaskPriority> PRIORITY_KEYWORDS = new HashMap<>();
-    
-    static {
-        PRIORITY_KEYWORDS.put("urgent", Task.TaskPriority.URGENT);
-        PRIORITY_KEYWORDS.put("asap", Task.TaskPriority.URGENT);
-        PRIORITY_KEYWORDS.put("emergency", Task.TaskPriority.URGENT);
-        PRIORITY_KEYWORDS.put("important", Task.TaskPriority.HIGH);
-        PRIORITY_KEYWORDS.put("critical", Task.TaskPriority.URGENT);
-        PRIORITY_KEYWORDS.put("deadline", Task.TaskPriority.HIGH);
+    private static Timer classifierTimer(String method, MeterRegistry meterRegistry) {
+        return Timer.builder("ai.classifier")
+                .description("Time spent in the rule-based classifier per method")
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    public String categorizeTask(Long userId, String title, String description) {
+        return categorizeTimer.record(() -> {
+            Task.TaskCategory learned = categoryLearningService.predict(userId, title, description);
+            return learned != null ? learned.name() : dictionaryCategory(title, description);
+        });
     }
 
     public String categorizeTask(String title, String description) {
+        return categorizeTimer.record(() -> dictionaryCategory(title, description));
+    }
+
+    private String dictionaryCategory(String title, String description) {
         if (title == null || title.isBlank()) {
             return "GENERAL";
         }
 
-        String text = (title + " " + (description != null ? description : "")).toLowerCase();
-        
-        for (Map.Entry<String, Task.TaskCategory> entry : CATEGORY_KEYWORDS.entrySet()) {
-            if (text.contains(entry.getKey())) {
-                return entry.getValue().name();
-            }
-        }
-        
-        return "GENERAL";
+        Task.TaskCategory category = classify(title, description).category();
+        return category != null ? category.name() : "GENERAL";
     }
 
     public String suggestPriority(String title, String description, String category) {
+        return priorityTimer.record(() -> dictionaryPriority(title, description, category));
+    }
+
+    private String dictionaryPriority(String title, String description, String category) {
         if (title == null || title.isBlank()) {
             return "MEDIUM";
         }
 
-        String text = (title + " " + (description != null ? description : "")).toLowerCase();
-        
-        for (Map.Entry<String, Task.TaskPriority> entry : PRIORITY_KEYWORDS.entrySet()) {
-            if (text.contains(entry.getKey())) {
-                return entry.getValue().name();
-            }
+        Task.TaskPriority priority = classify(title, description).priority();
+        if (priority != null) {
+            return priority.name();
         }
         
         // Default priority based on category
@@ -130,7 +104,15 @@ public class AIService {
         return "MEDIUM";
     }
 
+    private ClassificationCache.Classification classify(String title, String description) {
+        return classificationCache.classify(dictionaryLoader.current(), title, description);
+    }
+
     public String generateTaskSummary(List<Task> tasks) {
+        return summaryTimer.record(() -> summarize(tasks));
+    }
+
+    private String summarize(List<Task> tasks) {
         if (tasks == null || tasks.isEmpty()) {
             return "No tasks to summarize.";
         }
@@ -165,7 +147,22 @@ public class AIService {
         return summary.toString();
     }
 
+    public String suggestDeadline(Long userId, String title, String description, String category) {
+        return deadlineTimer.record(() -> {
+            Task.TaskCategory taskCategory = parseCategory(category);
+            Duration typical = taskCategory != null ? completionTimeService.estimate(userId, taskCategory) : null;
+            if (typical == null) {
+                return categoryDeadline(category);
+            }
+            return LocalDateTime.now().plus(typical).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        });
+    }
+
     public String suggestDeadline(String title, String description, String category) {
+        return deadlineTimer.record(() -> categoryDeadline(category));
+    }
+
+    private static String categoryDeadline(String category) {
         // Suggest deadlines based on category
         if (category == null) {
             return "";
@@ -192,6 +189,32 @@ public class AIService {
         return suggestedDate.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
     }
 
+    private static Task.TaskCategory parseCategory(String category) {
+        if (category == null) {
+            return null;
+        }
+        try {
+            return Task.TaskCategory.valueOf(category);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public String summarizeTask(Task task) {
+        if (task == null || task.getTitle() == null) {
+            return "";
+        }
+
+        StringBuilder summary = new StringBuilder();
+        summary.append(task.getPriority() != null ? task.getPriority().name() : "MEDIUM").append(" priority ");
+        summary.append(task.getCategory() != null ? task.getCategory().name() : "GENERAL").append(" task");
+        if (task.getDueDate() != null) {
+            summary.append(", due ").append(task.getDueDate().format(DateTimeFormatter.ISO_LOCAL_DATE));
+        }
+        summary.append(".");
+        return summary.toString();
+    }
+
     public String generateTaskSuggestion(Task task) {
         if (task == null) {
             return "";
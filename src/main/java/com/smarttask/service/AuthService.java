@@ -4,35 +4,51 @@ import com.smarttask.dto.AuthResponse;
 import com.smarttask.dto.LoginRequest;
 import com.smarttask.dto.RegisterRequest;
 import com.smarttask.entity.User;
+import com.smarttask.exception.ConflictException;
+import com.smarttask.exception.NotFoundException;
+import com.smarttask.repository.EmailClaimRepository;
 import com.smarttask.repository.UserRepository;
 import com.smarttask.security.JwtHelper;
+import com.smarttask.sharding.ShardRouter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
+    private final EmailClaimRepository emailClaimRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtHelper jwtHelper;
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
+    private final ShardRouter shardRouter;
 
-    @Transactional
+    // Not one transaction: users live on their own shard, but the e-mail is claimed on the
+    // default shard, whose claim table is the only constraint that spans all shards. A user
+    // name always maps to one shard, so its unique constraint there rejects concurrent takers.
     public AuthResponse register(RegisterRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("Username already exists");
+        String username = request.getUsername();
+        String email = request.getEmail();
+        if (shardRouter.callAs(username, () -> userRepository.existsByUsername(username))) {
+            throw ConflictException.USERNAME_TAKEN;
         }
 
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already exists");
+        // Users registered before e-mails were claimed have no claim row
+        if (shardRouter.anyShardMatches(() -> userRepository.existsByEmail(email))) {
+            throw ConflictException.EMAIL_TAKEN;
+        }
+        try {
+            shardRouter.runOn(shardRouter.defaultShard(), () -> emailClaimRepository.claim(email, username));
+        } catch (DataIntegrityViolationException e) {
+            throw ConflictException.EMAIL_TAKEN;
         }
 
         User user = User.builder()
@@ -43,7 +59,12 @@ public class AuthService {
                 .enabled(true)
                 .build();
 
-        userRepository.save(user);
+        try {
+            shardRouter.runAs(username, () -> userRepository.save(user));
+        } catch (RuntimeException e) {
+            shardRouter.runOn(shardRouter.defaultShard(), () -> emailClaimRepository.deleteById(email));
+            throw e;
+        }
 
         UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
         String token = jwtHelper.generateToken(userDetails);
@@ -63,8 +84,8 @@ public class AuthService {
                 new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
         );
 
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = shardRouter.callAs(request.getUsername(), () -> userRepository.findByUsername(request.getUsername()))
+                .orElseThrow(() -> NotFoundException.USER);
 
         UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
         String token = jwtHelper.generateToken(userDetails);
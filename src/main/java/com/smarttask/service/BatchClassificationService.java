@@ -0,0 +1,125 @@
+package com.smarttask.service;
+
+import com.smarttask.dto.BatchClassifyRequest;
+import com.smarttask.dto.BatchClassifyResponse;
+import com.smarttask.dto.ClassificationResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Classifies batches of title/description pairs without persisting them. Work is split into
+ * ranges on a dedicated work-stealing pool, and results are written back by index so they come
+ * out in input order.
+ */
+@Service
+public class BatchClassificationService {
+
+    // Below this many items a range is classified sequentially instead of being split further
+    private static final int SPLIT_THRESHOLD = 32;
+
+    private final AIService aiService;
+    private final int maxItems;
+    private final ForkJoinPool pool;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder items = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+
+    public BatchClassificationService(AIService aiService,
+                                      @Value("${ai.batch.max-items:5000}") int maxItems,
+                                      @Value("${ai.batch.parallelism:0}") int parallelism) {
+        this.aiService = aiService;
+        this.maxItems = maxItems;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchClassifyResponse classify(Long userId, List<BatchClassifyRequest.Item> batch) {
+        if (batch.size() > maxItems) {
+            throw new IllegalArgumentException("Batch of " + batch.size() + " items exceeds the limit of " + maxItems);
+        }
+
+        long start = System.nanoTime();
+        ClassificationResult[] results = new ClassificationResult[batch.size()];
+        pool.invoke(new ClassifyRange(userId, batch, results, 0, batch.size()));
+        long elapsed = System.nanoTime() - start;
+
+        batches.increment();
+        items.add(batch.size());
+        busyNanos.add(elapsed);
+
+        return BatchClassifyResponse.builder()
+                .results(Arrays.asList(results))
+                .count(results.length)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                .itemsPerSecond(elapsed > 0 ? results.length * 1_000_000_000L / elapsed : results.length)
+                .build();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public long getItemCount() {
+        return items.sum();
+    }
+
+    public long getBusyNanos() {
+        return busyNanos.sum();
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private ClassificationResult classifyOne(Long userId, BatchClassifyRequest.Item item) {
+        String category = aiService.categorizeTask(userId, item.getTitle(), item.getDescription());
+        return ClassificationResult.builder()
+                .category(category)
+                .priority(aiService.suggestPriority(item.getTitle(), item.getDescription(), category))
+                .suggestedDeadline(aiService.suggestDeadline(userId, item.getTitle(), item.getDescription(), category))
+                .build();
+    }
+
+    private class ClassifyRange extends RecursiveAction {
+
+        private final Long userId;
+        private final List<BatchClassifyRequest.Item> batch;
+        private final ClassificationResult[] results;
+        private final int from;
+        private final int to;
+
+        ClassifyRange(Long userId, List<BatchClassifyRequest.Item> batch, ClassificationResult[] results, int from, int to) {
+            this.userId = userId;
+            this.batch = batch;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = classifyOne(userId, batch.get(i));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ClassifyRange(userId, batch, results, from, mid),
+                    new ClassifyRange(userId, batch, results, mid, to));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.smarttask.service;
+
+import com.smarttask.ai.NaiveBayesModel;
+import com.smarttask.entity.Task;
+import com.smarttask.event.TaskCategoryCorrectedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Learns task categories from user corrections. Keeps one global model and one model per user;
+ * a user's own model is preferred once it has seen enough corrections.
+ */
+@Service
+public class CategoryLearningService {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryLearningService.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x53544e42;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final Task.TaskCategory[] CATEGORIES = Task.TaskCategory.values();
+
+    private volatile NaiveBayesModel globalModel = new NaiveBayesModel(CATEGORIES.length);
+    private final Map<Long, NaiveBayesModel> userModels = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    @Value("${ai.learning.min-examples:20}")
+    private int minExamples;
+
+    @Value("${ai.learning.min-confidence:0.6}")
+    private double minConfidence;
+
+    @Value("${ai.learning.snapshot-path:}")
+    private String snapshotPath;
+
+    /**
+     * Returns a learned category for the text, or {@code null} when neither the user's model nor
+     * the global model is trained and confident enough.
+     */
+    public Task.TaskCategory predict(Long userId, String title, String description) {
+        if (title == null || title.isBlank()) {
+            return null;
+        }
+        NaiveBayesModel userModel = userId != null ? userModels.get(userId) : null;
+        Task.TaskCategory category = predict(userModel, title, description);
+        return category != null ? category : predict(globalModel, title, description);
+    }
+
+    private Task.TaskCategory predict(NaiveBayesModel model, String title, String description) {
+        if (model == null || model.documentCount() < minExamples) {
+            return null;
+        }
+        NaiveBayesModel.Prediction prediction = model.predict(title, description);
+        if (prediction == null || prediction.confidence() < minConfidence) {
+            return null;
+        }
+        return CATEGORIES[prediction.label()];
+    }
+
+    @Async("categoryLearningExecutor")
+    @TransactionalEventListener
+    public void onCategoryCorrected(TaskCategoryCorrectedEvent event) {
+        int label = event.category().ordinal();
+        globalModel.train(event.title(), event.description(), label);
+        userModels.computeIfAbsent(event.userId(), id -> new NaiveBayesModel(CATEGORIES.length))
+                .train(event.title(), event.description(), label);
+        dirty.set(true);
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (snapshotPath.isBlank() || !Files.exists(Path.of(snapshotPath))) {
+            return;
+        }
+        try (InputStream stream = Files.newInputStream(Path.of(snapshotPath));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring category model snapshot {} with unknown format", snapshotPath);
+                return;
+            }
+            globalModel = NaiveBayesModel.readFrom(in);
+            int users = in.readInt();
+            for (int i = 0; i < users; i++) {
+                long userId = in.readLong();
+                userModels.put(userId, NaiveBayesModel.readFrom(in));
+            }
+            log.info("Restored category models from {}: {} global examples, {} user models",
+                    snapshotPath, globalModel.documentCount(), users);
+        } catch (IOException e) {
+            log.error("Could not restore category models from {}", snapshotPath, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.learning.snapshot-interval-ms:60000}")
+    public void snapshotIfDirty() {
+        if (dirty.getAndSet(false)) {
+            snapshot();
+        }
+    }
+
+    @PreDestroy
+    public void snapshot() {
+        if (snapshotPath.isBlank()) {
+            return;
+        }
+        Path target = Path.of(snapshotPath);
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+            try (OutputStream stream = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                globalModel.writeTo(out);
+                Map<Long, NaiveBayesModel> models = Map.copyOf(userModels);
+                out.writeInt(models.size());
+                for (Map.Entry<Long, NaiveBayesModel> entry : models.entrySet()) {
+                    out.writeLong(entry.getKey());
+                    entry.getValue().writeTo(out);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.error("Could not write category model snapshot to {}", snapshotPath, e);
+        }
+    }
+}
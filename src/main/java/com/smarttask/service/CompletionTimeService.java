@@ -0,0 +1,224 @@
+package com.smarttask.service;
+
+import com.smarttask.ai.DurationSketch;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.entity.Task;
+import com.smarttask.event.TaskChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Learns how long tasks take from creation to completion, per user and category and for the
+ * whole population. Each completion updates a {@link DurationSketch} and recomputes the
+ * configured quantile, so {@link #estimate} is a map lookup and a volatile read.
+ */
+@Service
+public class CompletionTimeService {
+
+    private static final Logger log = LoggerFactory.getLogger(CompletionTimeService.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x53544453;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final Task.TaskCategory[] CATEGORIES = Task.TaskCategory.values();
+
+    private final Estimate[] global = newEstimates();
+    private final Map<Long, Estimate[]> users = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    @Value("${ai.deadline.quantile:0.75}")
+    private double quantile;
+
+    @Value("${ai.deadline.min-samples:5}")
+    private int minSamples;
+
+    @Value("${ai.deadline.snapshot-path:}")
+    private String snapshotPath;
+
+    /**
+     * Returns the typical time to complete a task in this category, preferring the user's own
+     * history, or {@code null} when neither the user nor the population has enough completions.
+     */
+    public Duration estimate(Long userId, Task.TaskCategory category) {
+        if (category == null) {
+            return null;
+        }
+        Estimate[] own = userId != null ? users.get(userId) : null;
+        if (own != null && own[category.ordinal()].count >= minSamples) {
+            return Duration.ofMinutes(own[category.ordinal()].minutes);
+        }
+        Estimate population = global[category.ordinal()];
+        return population.count >= minSamples ? Duration.ofMinutes(population.minutes) : null;
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskResponse after = event.after();
+        if (after == null || after.getStatus() != Task.TaskStatus.COMPLETED
+                || (event.before() != null && event.before().getStatus() == Task.TaskStatus.COMPLETED)) {
+            return;
+        }
+        if (after.getCreatedAt() == null || after.getCompletedAt() == null || after.getCategory() == null) {
+            return;
+        }
+        long minutes = Duration.between(after.getCreatedAt(), after.getCompletedAt()).toMinutes();
+        int category = after.getCategory().ordinal();
+        global[category].add(minutes, quantile);
+        users.computeIfAbsent(after.getUserId(), id -> newEstimates())[category].add(minutes, quantile);
+        dirty.set(true);
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (snapshotPath.isBlank() || !Files.exists(Path.of(snapshotPath))) {
+            return;
+        }
+        try (InputStream stream = Files.newInputStream(Path.of(snapshotPath));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring completion time snapshot {} with unknown format", snapshotPath);
+                return;
+            }
+            readEstimates(in, global);
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long userId = in.readLong();
+                Estimate[] estimates = newEstimates();
+                readEstimates(in, estimates);
+                users.put(userId, estimates);
+            }
+            log.info("Restored completion time sketches from {} for {} users", snapshotPath, count);
+        } catch (IOException e) {
+            log.error("Could not restore completion time sketches from {}", snapshotPath, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.deadline.snapshot-interval-ms:60000}")
+    public void snapshotIfDirty() {
+        if (dirty.getAndSet(false)) {
+            snapshot();
+        }
+    }
+
+    @PreDestroy
+    public void snapshot() {
+        if (snapshotPath.isBlank()) {
+            return;
+        }
+        Path target = Path.of(snapshotPath);
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+            try (OutputStream stream = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                writeEstimates(out, global);
+                Map<Long, Estimate[]> snapshot = Map.copyOf(users);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<Long, Estimate[]> entry : snapshot.entrySet()) {
+                    out.writeLong(entry.getKey());
+                    writeEstimates(out, entry.getValue());
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.error("Could not write completion time snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    private void readEstimates(DataInputStream in, Estimate[] estimates) throws IOException {
+        int categories = in.readByte();
+        for (int i = 0; i < categories; i++) {
+            int ordinal = in.readByte();
+            estimates[ordinal].restore(DurationSketch.readFrom(in), quantile);
+        }
+    }
+
+    private static void writeEstimates(DataOutputStream out, Estimate[] estimates) throws IOException {
+        // Only categories with data are written; most users complete tasks in a few categories
+        int used = 0;
+        for (Estimate estimate : estimates) {
+            if (estimate.count > 0) {
+                used++;
+            }
+        }
+        out.writeByte(used);
+        for (int i = 0; i < estimates.length; i++) {
+            if (estimates[i].count > 0) {
+                out.writeByte(i);
+                estimates[i].writeTo(out);
+            }
+        }
+    }
+
+    private static Estimate[] newEstimates() {
+        Estimate[] estimates = new Estimate[CATEGORIES.length];
+        for (int i = 0; i < estimates.length; i++) {
+            estimates[i] = new Estimate();
+        }
+        return estimates;
+    }
+
+    private static final class Estimate {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private DurationSketch sketch = new DurationSketch();
+        private volatile long count;
+        private volatile long minutes;
+
+        void add(long value, double quantile) {
+            lock.lock();
+            try {
+                sketch.add(value);
+                minutes = sketch.quantile(quantile);
+                count = sketch.count();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void restore(DurationSketch restored, double quantile) {
+            lock.lock();
+            try {
+                sketch = restored;
+                minutes = sketch.quantile(quantile);
+                count = sketch.count();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            lock.lock();
+            try {
+                sketch.writeTo(out);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.smarttask.service;
+
+import com.smarttask.dto.CategoryProductivity;
+import com.smarttask.dto.DailyProductivity;
+import com.smarttask.dto.ProductivityTrendResponse;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.entity.ProductivityRollup;
+import com.smarttask.entity.Task;
+import com.smarttask.event.TaskChangedEvent;
+import com.smarttask.repository.ProductivityRollupRepository;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.UserRepository;
+import com.smarttask.sharding.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps daily per-user productivity rollups so trends never scan the tasks table.
+ *
+ * Created and completed counts follow committed task changes: each change adds the difference
+ * between the task's contribution after and before it, so edits that move a task to another
+ * category or reopen it correct the earlier counts. Deltas are merged in memory and added to
+ * the stored counts in the database, so replicas never overwrite each other; a batch that fails
+ * is merged back and retried. Overdue counts are keyed by due date and are set once the day has
+ * passed. {@link #backfill(Long)} rebuilds a user's rollups from their tasks. Deltas are kept
+ * per shard, and the scheduled jobs visit every shard.
+ */
+@Service
+public class ProductivityRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductivityRollupService.class);
+
+    private static final int CREATED = 0;
+    private static final int COMPLETED = 1;
+
+    private final ProductivityRollupRepository rollupRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final boolean backfillOnStartup;
+
+    private final ConcurrentHashMap<Key, int[]> pending = new ConcurrentHashMap<>();
+    // Serialises every rollup write so upserts never race on the unique key
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public ProductivityRollupService(ProductivityRollupRepository rollupRepository,
+                                     TaskRepository taskRepository,
+                                     UserRepository userRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     ShardRouter shardRouter,
+                                     @Value("${ai.productivity.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.rollupRepository = rollupRepository;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        contribute(event.before(), -1);
+        contribute(event.after(), 1);
+    }
+
+    public ProductivityTrendResponse getTrends(Long userId, String range) {
+        TrendRange trendRange = TrendRange.parse(range);
+        LocalDate to = LocalDate.now();
+        LocalDate from = trendRange.start(to);
+
+        ProductivityTrendResponse.Bucket[] buckets = new ProductivityTrendResponse.Bucket[trendRange.buckets];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ProductivityTrendResponse.Bucket(from.plusDays((long) i * trendRange.bucketDays), 0, 0, 0);
+        }
+        for (DailyProductivity day : rollupRepository.sumByDay(userId, from, to)) {
+            ProductivityTrendResponse.Bucket bucket =
+                    buckets[(int) (ChronoUnit.DAYS.between(from, day.date()) / trendRange.bucketDays)];
+            bucket.setCreated(bucket.getCreated() + day.created());
+            bucket.setCompleted(bucket.getCompleted() + day.completed());
+            bucket.setOverdue(bucket.getOverdue() + day.overdue());
+        }
+
+        Map<Task.TaskCategory, CategoryProductivity> byCategory = new EnumMap<>(Task.TaskCategory.class);
+        for (CategoryProductivity category : rollupRepository.sumByCategory(userId, from, to)) {
+            byCategory.put(category.category(), category);
+        }
+
+        return ProductivityTrendResponse.builder()
+                .range(trendRange.name().toLowerCase())
+                .from(from)
+                .to(to)
+                .buckets(List.of(buckets))
+                .byCategory(byCategory)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${ai.productivity.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Map<String, Map<Key, int[]>> byShard = new HashMap<>();
+            for (Key key : pending.keySet()) {
+                int[] delta = pending.remove(key);
+                if (delta != null && (delta[CREATED] != 0 || delta[COMPLETED] != 0)) {
+                    byShard.computeIfAbsent(key.shard(), shard -> new HashMap<>()).put(key, delta);
+                }
+            }
+            byShard.forEach((shard, batch) -> {
+                try {
+                    shardRouter.runOn(shard, () -> transactionTemplate.executeWithoutResult(status -> write(batch)));
+                } catch (RuntimeException e) {
+                    // Most likely another replica inserted one of the rows first; its row exists now
+                    log.warn("Writing {} rollup deltas to {} failed, retrying with the next flush", batch.size(), shard, e);
+                    batch.forEach((key, delta) -> pending.merge(key, delta, ProductivityRollupService::sum));
+                }
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Records how many tasks due yesterday were still open when the day ended.
+     */
+    @Scheduled(cron = "${ai.productivity.overdue-cron:0 5 0 * * *}")
+    public void rollupOverdue() {
+        rollupOverdue(LocalDate.now().minusDays(1));
+    }
+
+    public void rollupOverdue(LocalDate day) {
+        writeLock.lock();
+        try {
+            shardRouter.forEachShard(() -> transactionTemplate.executeWithoutResult(status -> {
+                String shard = shardRouter.currentShard();
+                rollupRepository.clearOverdueCounts(day);
+                List<ProductivityRollup> rows = new ArrayList<>();
+                for (Object[] row : taskRepository.countOverdueOn(day.atStartOfDay(), day.plusDays(1).atStartOfDay())) {
+                    Key key = new Key(shard, (Long) row[0], day, (Task.TaskCategory) row[1], (Task.TaskPriority) row[2]);
+                    int count = ((Long) row[3]).intValue();
+                    if (rollupRepository.setOverdueCount(key.userId(), day, key.category(), key.priority(), count) == 0) {
+                        ProductivityRollup created = key.newRow();
+                        created.setOverdueCount(count);
+                        rows.add(created);
+                    }
+                }
+                rollupRepository.saveAll(rows);
+            }));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        shardRouter.forEachShard(() -> {
+            if (rollupRepository.count() == 0) {
+                long start = System.currentTimeMillis();
+                List<Long> userIds = userRepository.findAllIds();
+                userIds.forEach(this::backfill);
+                log.info("Backfilled productivity rollups for {} users on {} in {} ms", userIds.size(),
+                        shardRouter.currentShard(), System.currentTimeMillis() - start);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds all rollups of one user from the tasks table. Meant for operators, through the
+     * rollups actuator endpoint, after counts were lost or a user was moved between shards.
+     */
+    public void backfill(Long userId) {
+        writeLock.lock();
+        try {
+            // The tasks read below already include every change these deltas came from
+            pending.keySet().removeIf(key -> key.userId().equals(userId));
+            transactionTemplate.executeWithoutResult(status -> {
+                String shard = shardRouter.currentShard();
+                LocalDate today = LocalDate.now();
+                Map<Key, ProductivityRollup> rows = new HashMap<>();
+                for (Task task : taskRepository.findByUserIdOrderByPositionAsc(userId)) {
+                    Task.TaskCategory category = task.getCategory();
+                    Task.TaskPriority priority = task.getPriority();
+                    LocalDate created = task.getCreatedAt() != null ? task.getCreatedAt().toLocalDate() : today;
+                    ProductivityRollup createdRow = row(rows, new Key(shard, userId, created, category, priority));
+                    createdRow.setCreatedCount(createdRow.getCreatedCount() + 1);
+
+                    LocalDate completed = completedDay(task.getStatus(), task.getCompletedAt());
+                    if (completed != null) {
+                        ProductivityRollup row = row(rows, new Key(shard, userId, completed, category, priority));
+                        row.setCompletedCount(row.getCompletedCount() + 1);
+                    }
+
+                    if (isOverdue(task.getDueDate(), task.getCompletedAt(), today)) {
+                        ProductivityRollup row = row(rows, new Key(shard, userId, task.getDueDate().toLocalDate(), category, priority));
+                        row.setOverdueCount(row.getOverdueCount() + 1);
+                    }
+                }
+                rollupRepository.deleteByUserId(userId);
+                rollupRepository.saveAll(rows.values());
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void contribute(TaskResponse task, int sign) {
+        if (task == null) {
+            return;
+        }
+        // Listeners run on the thread that committed the change, so the bound shard is the user's
+        String shard = shardRouter.currentShard();
+        LocalDate created = task.getCreatedAt() != null ? task.getCreatedAt().toLocalDate() : LocalDate.now();
+        add(new Key(shard, task.getUserId(), created, task.getCategory(), task.getPriority()), CREATED, sign);
+
+        LocalDate completed = completedDay(task.getStatus(), task.getCompletedAt());
+        if (completed != null) {
+            add(new Key(shard, task.getUserId(), completed, task.getCategory(), task.getPriority()), COMPLETED, sign);
+        }
+    }
+
+    private void add(Key key, int counter, int delta) {
+        pending.compute(key, (k, counts) -> {
+            int[] merged = counts != null ? counts : new int[2];
+            merged[counter] += delta;
+            return merged;
+        });
+    }
+
+    private void write(Map<Key, int[]> batch) {
+        List<ProductivityRollup> created = new ArrayList<>();
+        batch.forEach((key, delta) -> {
+            if (rollupRepository.addCounts(key.userId(), key.day(), key.category(), key.priority(),
+                    delta[CREATED], delta[COMPLETED]) == 0) {
+                ProductivityRollup row = key.newRow();
+                row.setCreatedCount(delta[CREATED]);
+                row.setCompletedCount(delta[COMPLETED]);
+                created.add(row);
+            }
+        });
+        rollupRepository.saveAll(created);
+    }
+
+    private static int[] sum(int[] counts, int[] delta) {
+        counts[CREATED] += delta[CREATED];
+        counts[COMPLETED] += delta[COMPLETED];
+        return counts;
+    }
+
+    private static ProductivityRollup row(Map<Key, ProductivityRollup> rows, Key key) {
+        return rows.computeIfAbsent(key, Key::newRow);
+    }
+
+    private static LocalDate completedDay(Task.TaskStatus status, LocalDateTime completedAt) {
+        return status == Task.TaskStatus.COMPLETED && completedAt != null ? completedAt.toLocalDate() : null;
+    }
+
+    private static boolean isOverdue(LocalDateTime dueDate, LocalDateTime completedAt, LocalDate today) {
+        if (dueDate == null || !dueDate.toLocalDate().isBefore(today)) {
+            return false;
+        }
+        LocalDateTime endOfDueDay = dueDate.toLocalDate().plusDays(1).atStartOfDay();
+        return completedAt == null || !completedAt.isBefore(endOfDueDay);
+    }
+
+    private record Key(String shard, Long userId, LocalDate day, Task.TaskCategory category, Task.TaskPriority priority) {
+
+        ProductivityRollup newRow() {
+            return ProductivityRollup.builder()
+                    .userId(userId)
+                    .bucketDate(day)
+                    .category(category)
+                    .priority(priority)
+                    .build();
+        }
+    }
+
+    private enum TrendRange {
+        WEEK(7, 1),
+        MONTH(30, 1),
+        YEAR(52, 7);
+
+        final int buckets;
+        final int bucketDays;
+
+        TrendRange(int buckets, int bucketDays) {
+            this.buckets = buckets;
+            this.bucketDays = bucketDays;
+        }
+
+        LocalDate start(LocalDate today) {
+            LocalDate lastBucket = bucketDays == 7 ? today.with(DayOfWeek.MONDAY) : today;
+            return lastBucket.minusDays((long) (buckets - 1) * bucketDays);
+        }
+
+        static TrendRange parse(String range) {
+            try {
+                return valueOf(range.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown range '" + range + "', expected week, month or year");
+            }
+        }
+    }
+}
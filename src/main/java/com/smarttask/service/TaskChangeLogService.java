@@ -0,0 +1,135 @@
+package com.smarttask.service;
+
+import com.smarttask.dto.TaskChangesResponse;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.entity.Task;
+import com.smarttask.entity.TaskChange;
+import com.smarttask.event.TaskChangedEvent;
+import com.smarttask.repository.TaskChangeRepository;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.repository.UserRepository;
+import com.smarttask.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user change log behind delta sync.
+ *
+ * Every task change bumps the user's change sequence and appends an entry in the same
+ * transaction, so a cursor never skips a change that commits later. Compaction drops entries
+ * superseded by a newer one for the same task, and tombstones past the retention period.
+ * Dropping a tombstone raises the user's floor; older cursors get a full resync.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskChangeLogService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskChangeLogService.class);
+
+    private final TaskChangeRepository taskChangeRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+
+    @Value("${sync.max-changes:500}")
+    private int maxChanges;
+
+    @Value("${sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    // Synchronous on purpose: the entry must commit or roll back with the change itself
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        userRepository.incrementChangeSeq(event.userId());
+        taskChangeRepository.save(TaskChange.builder()
+                .userId(event.userId())
+                .seq(userRepository.findChangeSeq(event.userId()))
+                .taskId(event.taskId())
+                .type(event.isDelete() ? TaskChange.Type.DELETE : TaskChange.Type.UPSERT)
+                .changedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Transactional(readOnly = true)
+    public TaskChangesResponse getChanges(Long userId, Long since) {
+        long current = userRepository.findChangeSeq(userId);
+        long floor = userRepository.findChangeFloor(userId);
+        if (since == null || since < floor || since > current) {
+            List<TaskResponse> tasks = taskRepository.findByUserIdOrderByPositionAsc(userId).stream()
+                    .map(TaskResponse::fromEntity)
+                    .collect(Collectors.toList());
+            return TaskChangesResponse.builder()
+                    .cursor(current)
+                    .fullResync(true)
+                    .upserts(tasks)
+                    .deletes(List.of())
+                    .build();
+        }
+
+        List<TaskChange> changes = taskChangeRepository.findSince(userId, since, PageRequest.of(0, maxChanges));
+        // Later entries for the same task win; order of first appearance is kept
+        Map<Long, TaskChange.Type> latest = new LinkedHashMap<>();
+        for (TaskChange change : changes) {
+            latest.remove(change.getTaskId());
+            latest.put(change.getTaskId(), change.getType());
+        }
+
+        List<Long> upsertIds = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        latest.forEach((taskId, type) -> (type == TaskChange.Type.DELETE ? deletes : upsertIds).add(taskId));
+
+        List<TaskResponse> upserts = new ArrayList<>(upsertIds.size());
+        for (Task task : taskRepository.findAllById(upsertIds)) {
+            // A task deleted after this page was read shows up as a tombstone on the next call
+            if (task.getUser().getId().equals(userId)) {
+                upserts.add(TaskResponse.fromEntity(task));
+            }
+        }
+
+        boolean hasMore = changes.size() == maxChanges;
+        return TaskChangesResponse.builder()
+                .cursor(changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq())
+                .fullResync(false)
+                .hasMore(hasMore)
+                .upserts(upserts)
+                .deletes(deletes)
+                .build();
+    }
+
+    // One transaction per shard, each opened after its shard is bound
+    @Scheduled(cron = "${sync.compaction-cron:0 15 * * * *}")
+    public void compact() {
+        shardRouter.forEachShard(() -> transactionTemplate.executeWithoutResult(status -> compactShard()));
+    }
+
+    private void compactShard() {
+        int superseded = taskChangeRepository.deleteSuperseded();
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(tombstoneRetentionDays);
+        for (Object[] horizon : taskChangeRepository.findTombstoneHorizon(cutoff)) {
+            userRepository.raiseChangeFloor((Long) horizon[0], (Long) horizon[1]);
+        }
+        int tombstones = taskChangeRepository.deleteTombstonesBefore(cutoff);
+
+        if (superseded > 0 || tombstones > 0) {
+            log.info("Compacted task change log on {}: {} superseded entries, {} expired tombstones",
+                    shardRouter.currentShard(), superseded, tombstones);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.smarttask.service;
+
+import com.smarttask.ai.AIInsight;
+import com.smarttask.ai.AIPrompt;
+import com.smarttask.ai.AIProvider;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.entity.Task;
+import com.smarttask.event.TaskChangedEvent;
+import com.smarttask.event.TaskEnrichmentRequestedEvent;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills in category, priority, summary and suggestion for new or edited tasks in the background.
+ *
+ * Creates and edits only enqueue a job after commit. A fixed number of virtual-thread workers
+ * drain the bounded queue in batches, ask the {@link AIProvider} for every task in the batch
+ * concurrently, write the results back in one transaction and publish the changes like any
+ * other task edit. Each write only touches the AI-owned columns and only succeeds while the task
+ * is unchanged since it was read; a task edited in between is summarised again, up to three
+ * times, without touching its category or priority. When the queue is full the job is dropped
+ * and the task keeps its defaults. Jobs remember the shard they were created on and a batch is
+ * processed shard by shard.
+ */
+@Service
+public class TaskEnrichmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskEnrichmentService.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final TaskRepository taskRepository;
+    private final AIProvider aiProvider;
+    private final CategoryLearningService categoryLearningService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final int workers;
+    private final int batchSize;
+    private final BlockingQueue<Job> queue;
+
+    private final Timer lag;
+    private final Counter dropped;
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public TaskEnrichmentService(TaskRepository taskRepository,
+                                 AIProvider aiProvider,
+                                 CategoryLearningService categoryLearningService,
+                                 TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 ShardRouter shardRouter,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${ai.enrichment.workers:4}") int workers,
+                                 @Value("${ai.enrichment.batch-size:50}") int batchSize,
+                                 @Value("${ai.enrichment.queue-capacity:10000}") int queueCapacity) {
+        this.taskRepository = taskRepository;
+        this.aiProvider = aiProvider;
+        this.categoryLearningService = categoryLearningService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.shardRouter = shardRouter;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("ai.enrichment.queue.depth", queue, BlockingQueue::size)
+                .description("Tasks waiting for AI enrichment")
+                .register(meterRegistry);
+        this.lag = Timer.builder("ai.enrichment.lag")
+                .description("Time from task creation commit to enriched write-back")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.dropped = Counter.builder("ai.enrichment.dropped")
+                .description("Enrichment jobs dropped because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workers; i++) {
+            workerThreads.add(Thread.ofVirtual().name("ai-enrichment-" + i).start(this::runWorker));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workerThreads.forEach(Thread::interrupt);
+    }
+
+    @TransactionalEventListener
+    public void onEnrichmentRequested(TaskEnrichmentRequestedEvent event) {
+        offer(new Job(event, System.nanoTime(), shardRouter.currentShard(), 0));
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void runWorker() {
+        List<Job> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Job first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                Map<String, List<Job>> byShard = new HashMap<>();
+                for (Job job : batch) {
+                    byShard.computeIfAbsent(job.shard(), shard -> new ArrayList<>()).add(job);
+                }
+                byShard.forEach((shard, jobs) -> shardRouter.runOn(shard, () -> enrich(jobs)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Enrichment of {} tasks failed", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void enrich(List<Job> batch) {
+        Map<Long, Job> jobs = new HashMap<>();
+        for (Job job : batch) {
+            jobs.put(job.event().taskId(), job);
+        }
+
+        Map<Long, Snapshot> snapshots = new HashMap<>();
+        Map<Long, CompletableFuture<AIInsight>> insights = new HashMap<>();
+        for (Task task : taskRepository.findAllById(jobs.keySet())) {
+            TaskEnrichmentRequestedEvent event = jobs.get(task.getId()).event();
+            // An edit since the request may have set category or priority on purpose
+            boolean untouched = event.version() == null || event.version().equals(task.getUpdatedAt());
+            boolean inferCategory = untouched && event.inferCategory();
+            boolean inferPriority = untouched && event.inferPriority();
+            Task.TaskCategory category = inferCategory
+                    ? categoryLearningService.predict(event.userId(), task.getTitle(), task.getDescription())
+                    : task.getCategory();
+            snapshots.put(task.getId(), new Snapshot(TaskResponse.fromEntity(task), inferCategory, inferPriority));
+            insights.put(task.getId(), aiProvider.analyze(new AIPrompt(task.getTitle(), task.getDescription(),
+                    category, inferPriority ? null : task.getPriority())));
+        }
+        CompletableFuture.allOf(insights.values().toArray(CompletableFuture[]::new)).join();
+
+        List<Job> superseded = new ArrayList<>();
+        List<Job> written = transactionTemplate.execute(status -> {
+            List<Job> done = new ArrayList<>(snapshots.size());
+            snapshots.forEach((taskId, snapshot) -> {
+                TaskResponse after = snapshot.apply(insights.get(taskId).join());
+                if (taskRepository.applyEnrichment(taskId, after.getCategory(), after.getPriority(), after.getAiSummary(),
+                        after.getAiSuggestion(), after.getUpdatedAt(), snapshot.task().getUpdatedAt()) == 1) {
+                    eventPublisher.publishEvent(TaskChangedEvent.updated(snapshot.task(), after));
+                    done.add(jobs.get(taskId));
+                } else {
+                    superseded.add(jobs.get(taskId));
+                }
+            });
+            return done;
+        });
+
+        long now = System.nanoTime();
+        for (Job job : written) {
+            lag.record(now - job.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        // Edited during the AI call: summarise the new state, but leave category and priority alone
+        for (Job job : superseded) {
+            if (job.attempts() + 1 >= MAX_ATTEMPTS) {
+                log.info("Task {} kept changing during enrichment, giving up", job.event().taskId());
+            } else {
+                offer(new Job(TaskEnrichmentRequestedEvent.refresh(job.event().taskId(), job.event().userId()),
+                        job.enqueuedAt(), job.shard(), job.attempts() + 1));
+            }
+        }
+    }
+
+    private void offer(Job job) {
+        if (!queue.offer(job)) {
+            dropped.increment();
+            log.warn("Enrichment queue full, task {} keeps its default classification", job.event().taskId());
+        }
+    }
+
+    /**
+     * A task as read before the AI call, and which of its fields the result may replace.
+     */
+    private record Snapshot(TaskResponse task, boolean inferCategory, boolean inferPriority) {
+
+        TaskResponse apply(AIInsight insight) {
+            return task.toBuilder()
+                    .category(inferCategory ? insight.category() : task.getCategory())
+                    .priority(inferPriority ? insight.priority() : task.getPriority())
+                    .aiSummary(task.getAiSummary() != null ? task.getAiSummary() : insight.summary())
+                    .aiSuggestion(task.getAiSuggestion() != null ? task.getAiSuggestion() : insight.suggestion())
+                    // The precision the column stores, so the next guarded write can match it
+                    .updatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                    .build();
+        }
+    }
+
+    private record Job(TaskEnrichmentRequestedEvent event, long enqueuedAt, String shard, int attempts) {
+    }
+}
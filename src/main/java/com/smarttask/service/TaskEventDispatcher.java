@@ -0,0 +1,113 @@
+package com.smarttask.service;
+
+import com.smarttask.dto.TaskEvent;
+import com.smarttask.dto.TaskEventBatch;
+import com.smarttask.event.TaskChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes committed task changes to the owner's sockets.
+ *
+ * Changes are collected per user for {@code windowMillis} after the first one and sent as a
+ * single {@link TaskEventBatch} frame. Within a window only the latest state of each task is
+ * kept: a create followed by updates is sent as one create, and a task created and deleted in
+ * the same window is not sent at all. Rolled-back transactions never reach this listener.
+ */
+@Service
+public class TaskEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskEventDispatcher.class);
+
+    private final WebSocketService webSocketService;
+    private final long windowMillis;
+    private final int maxBatchSize;
+
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public TaskEventDispatcher(WebSocketService webSocketService,
+                               @Value("${websocket.coalesce-window-ms:50}") long windowMillis,
+                               @Value("${websocket.max-batch-size:500}") int maxBatchSize) {
+        this.webSocketService = webSocketService;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        Long userId = event.userId();
+        Pending merged = pending.compute(userId, (id, current) -> {
+            if (current == null) {
+                current = new Pending();
+                scheduler.schedule(() -> flush(id), windowMillis, TimeUnit.MILLISECONDS);
+            }
+            current.merge(event);
+            return current;
+        });
+        if (merged.events.size() >= maxBatchSize) {
+            scheduler.execute(() -> flush(userId));
+        }
+    }
+
+    void flush(Long userId) {
+        // Once removed no other thread can touch the batch, so it is read without locking
+        Pending batch = pending.remove(userId);
+        if (batch == null || batch.events.isEmpty()) {
+            return;
+        }
+        try {
+            webSocketService.sendTaskEvents(userId, new TaskEventBatch(new ArrayList<>(batch.events.values()), batch.changes));
+        } catch (RuntimeException e) {
+            log.warn("Could not deliver {} task events to user {}", batch.events.size(), userId, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (Long userId : pending.keySet()) {
+            flush(userId);
+        }
+    }
+
+    private static final class Pending {
+
+        private final Map<Long, TaskEvent> events = new LinkedHashMap<>();
+        private int changes;
+
+        void merge(TaskChangedEvent event) {
+            changes++;
+            Long taskId = event.taskId();
+            TaskEvent previous = events.get(taskId);
+            if (event.isDelete()) {
+                if (previous != null && previous.getType() == TaskEvent.Type.CREATED) {
+                    events.remove(taskId);
+                } else {
+                    events.put(taskId, new TaskEvent(TaskEvent.Type.DELETED, taskId, null));
+                }
+            } else if (event.isCreate() || (previous != null && previous.getType() == TaskEvent.Type.CREATED)) {
+                events.put(taskId, new TaskEvent(TaskEvent.Type.CREATED, taskId, event.after()));
+            } else {
+                events.put(taskId, new TaskEvent(TaskEvent.Type.UPDATED, taskId, event.after()));
+            }
+        }
+    }
+}
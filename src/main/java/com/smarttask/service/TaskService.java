@@ -1,20 +1,28 @@
 package com.smarttask.service;
 
+import com.smarttask.ai.AIPrompt;
+import com.smarttask.ai.AIProvider;
+import com.smarttask.dto.TaskListing;
 import com.smarttask.dto.TaskRequest;
 import com.smarttask.dto.TaskResponse;
 import com.smarttask.entity.Task;
 import com.smarttask.entity.User;
+import com.smarttask.event.TaskCategoryCorrectedEvent;
+import com.smarttask.event.TaskChangedEvent;
+import com.smarttask.event.TaskEnrichmentRequestedEvent;
+import com.smarttask.exception.ForbiddenException;
+import com.smarttask.exception.NotFoundException;
 import com.smarttask.repository.TaskRepository;
 import com.smarttask.repository.UserRepository;
+import com.smarttask.sharding.ShardRouter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -22,11 +30,14 @@ public class TaskService {
 
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AIProvider aiProvider;
+    private final ShardRouter shardRouter;
 
     @Transactional
     public TaskResponse createTask(Long userId, TaskRequest request) {
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> NotFoundException.USER);
 
         Task task = Task.builder()
                 .title(request.getTitle())
@@ -40,16 +51,33 @@ public class TaskService {
                 .build();
 
         Task savedTask = taskRepository.save(task);
-        return TaskResponse.fromEntity(savedTask);
+
+        // AI classification happens after commit so it never adds to create latency
+        eventPublisher.publishEvent(new TaskEnrichmentRequestedEvent(savedTask.getId(), userId,
+                request.getCategory() == null, request.getPriority() == null, savedTask.getUpdatedAt()));
+        TaskResponse response = TaskResponse.fromEntity(savedTask);
+        eventPublisher.publishEvent(TaskChangedEvent.created(response));
+        return response;
     }
 
     @Transactional
     public TaskResponse updateTask(Long userId, Long taskId, TaskRequest request) {
         Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+                .orElseThrow(() -> NotFoundException.TASK);
 
         if (!task.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized to update this task");
+            throw ForbiddenException.TASK_UPDATE;
+        }
+        TaskResponse before = TaskResponse.fromEntity(task);
+
+        // Stored AI suggestions only depend on these fields, so other edits keep them
+        boolean stale = (request.getDescription() != null && !request.getDescription().equals(task.getDescription()))
+                || (request.getPriority() != null && request.getPriority() != task.getPriority())
+                || (request.getCategory() != null && request.getCategory() != task.getCategory())
+                || (request.getDueDate() != null && !request.getDueDate().equals(task.getDueDate()));
+        if (stale) {
+            task.setAiSuggestion(null);
+            task.setAiSummary(null);
         }
 
         if (request.getTitle() != null) {
@@ -67,7 +95,11 @@ public class TaskService {
         if (request.getPriority() != null) {
             task.setPriority(request.getPriority());
         }
-        if (request.getCategory() != null) {
+        if (request.getCategory() != null && request.getCategory() != task.getCategory()) {
+            eventPublisher.publishEvent(new TaskCategoryCorrectedEvent(userId,
+                    request.getTitle() != null ? request.getTitle() : task.getTitle(),
+                    request.getDescription() != null ? request.getDescription() : task.getDescription(),
+                    task.getCategory(), request.getCategory()));
             task.setCategory(request.getCategory());
         }
         if (request.getDueDate() != null) {
@@ -78,70 +110,96 @@ public class TaskService {
         }
 
         Task updatedTask = taskRepository.save(task);
-        return TaskResponse.fromEntity(updatedTask);
+        if (stale) {
+            // Writes a summary for the edited task once this commits
+            eventPublisher.publishEvent(TaskEnrichmentRequestedEvent.refresh(taskId, userId));
+        }
+        TaskResponse response = TaskResponse.fromEntity(updatedTask);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(before, response));
+        return response;
     }
 
     @Transactional
     public void deleteTask(Long userId, Long taskId) {
         Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+                .orElseThrow(() -> NotFoundException.TASK);
 
         if (!task.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized to delete this task");
+            throw ForbiddenException.TASK_DELETE;
         }
 
+        TaskResponse before = TaskResponse.fromEntity(task);
         taskRepository.delete(task);
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(before));
     }
 
     public TaskResponse getTaskById(Long userId, Long taskId) {
         Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+                .orElseThrow(() -> NotFoundException.TASK);
 
         if (!task.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized to access this task");
+            throw ForbiddenException.TASK_ACCESS;
         }
 
         return TaskResponse.fromEntity(task);
     }
 
-    public Page<TaskResponse> getAllTasks(Long userId, Pageable pageable) {
-        Page<Task> tasks = taskRepository.findByUserId(userId, pageable);
-        return tasks.map(TaskResponse::fromEntity);
+    public CompletableFuture<String> getTaskSuggestion(Long userId, Long taskId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> NotFoundException.TASK);
+
+        if (!task.getUser().getId().equals(userId)) {
+            throw ForbiddenException.TASK_ACCESS;
+        }
+
+        if (task.getAiSuggestion() != null) {
+            return CompletableFuture.completedFuture(task.getAiSuggestion());
+        }
+
+        // Written with a direct update so memoising does not bump updatedAt, and only if the task
+        // is unchanged since this read, so a suggestion for stale text is never stored. The
+        // callback runs on the provider's thread, so the request's shard is carried over
+        String shard = shardRouter.currentShard();
+        LocalDateTime readAt = task.getUpdatedAt();
+        return aiProvider.analyze(AIPrompt.of(task)).thenApply(insight -> {
+            shardRouter.runOn(shard, () -> taskRepository.updateAiSuggestion(taskId, insight.suggestion(), readAt));
+            return insight.suggestion();
+        });
+    }
+
+    public TaskListing getAllTasks(Long userId, Pageable pageable) {
+        return TaskListing.of(taskRepository.findByUserId(userId, pageable));
     }
 
-    public List<TaskResponse> getTasksByStatus(Long userId, Task.TaskStatus status) {
-        List<Task> tasks = taskRepository.findByUserIdAndStatus(userId, status);
-        return tasks.stream().map(TaskResponse::fromEntity).collect(Collectors.toList());
+    public TaskListing getTasksByStatus(Long userId, Task.TaskStatus status) {
+        return TaskListing.of(taskRepository.findByUserIdAndStatus(userId, status));
     }
 
-    public List<TaskResponse> getTasksByCategory(Long userId, Task.TaskCategory category) {
-        List<Task> tasks = taskRepository.findByUserIdAndCategory(userId, category);
-        return tasks.stream().map(TaskResponse::fromEntity).collect(Collectors.toList());
+    public TaskListing getTasksByCategory(Long userId, Task.TaskCategory category) {
+        return TaskListing.of(taskRepository.findByUserIdAndCategory(userId, category));
     }
 
-    public List<TaskResponse> getTasksByPriority(Long userId, Task.TaskPriority priority) {
-        List<Task> tasks = taskRepository.findByUserIdAndPriority(userId, priority);
-        return tasks.stream().map(TaskResponse::fromEntity).collect(Collectors.toList());
+    public TaskListing getTasksByPriority(Long userId, Task.TaskPriority priority) {
+        return TaskListing.of(taskRepository.findByUserIdAndPriority(userId, priority));
     }
 
-    public List<TaskResponse> getOverdueTasks(Long userId) {
-        List<Task> tasks = taskRepository.findOverdueTasks(userId, LocalDateTime.now());
-        return tasks.stream().map(TaskResponse::fromEntity).collect(Collectors.toList());
+    public TaskListing getOverdueTasks(Long userId) {
+        return TaskListing.of(taskRepository.findOverdueTasks(userId, LocalDateTime.now()));
     }
 
-    public List<TaskResponse> getAllTasksOrdered(Long userId) {
-        List<Task> tasks = taskRepository.findByUserIdOrderByPositionAsc(userId);
-        return tasks.stream().map(TaskResponse::fromEntity).collect(Collectors.toList());
+    public TaskListing getAllTasksOrdered(Long userId) {
+        return TaskListing.of(taskRepository.findByUserIdOrderByPositionAsc(userId));
     }
 
     @Transactional
     public TaskResponse updateTaskStatus(Long userId, Long taskId, Task.TaskStatus status) {
         Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+                .orElseThrow(() -> NotFoundException.TASK);
 
         if (!task.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized to update this task");
+            throw ForbiddenException.TASK_UPDATE;
         }
+        TaskResponse before = TaskResponse.fromEntity(task);
 
         task.setStatus(status);
         if (status == Task.TaskStatus.COMPLETED) {
@@ -151,20 +209,25 @@ public class TaskService {
         }
 
         Task updatedTask = taskRepository.save(task);
-        return TaskResponse.fromEntity(updatedTask);
+        TaskResponse response = TaskResponse.fromEntity(updatedTask);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(before, response));
+        return response;
     }
 
     @Transactional
     public TaskResponse updateTaskPosition(Long userId, Long taskId, Integer position) {
         Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+                .orElseThrow(() -> NotFoundException.TASK);
 
         if (!task.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized to update this task");
+            throw ForbiddenException.TASK_UPDATE;
         }
+        TaskResponse before = TaskResponse.fromEntity(task);
 
         task.setPosition(position);
         Task updatedTask = taskRepository.save(task);
-        return TaskResponse.fromEntity(updatedTask);
+        TaskResponse response = TaskResponse.fromEntity(updatedTask);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(before, response));
+        return response;
     }
 }
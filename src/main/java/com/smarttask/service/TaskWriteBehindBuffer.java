@@ -0,0 +1,357 @@
+package com.smarttask.service;
+
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.entity.Task;
+import com.smarttask.event.TaskChangedEvent;
+import com.smarttask.exception.ForbiddenException;
+import com.smarttask.exception.NotFoundException;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Acknowledges status and position PATCHes from memory and writes them a few milliseconds later.
+ *
+ * Off by default, in which case every PATCH is its own transaction in {@link TaskService}. When
+ * enabled, only the latest status and position of each task is kept; a burst of drags or
+ * toggles on one task becomes a single update. A flusher writes everything buffered, shard by
+ * shard in one transaction each, and publishes one change per task. Only the status, completion
+ * time and position columns are written, so concurrent edits to other fields survive; changes
+ * for tasks that are gone from the shard, deleted or moved by a rebalance, are counted as
+ * dropped. Rows get the update time that was acknowledged, not the time of the flush. Before
+ * a user's tasks are read or edited any other way their buffered changes are written, so reads
+ * never miss an acknowledged PATCH. The buffer is flushed once more on shutdown, after the
+ * server has stopped taking requests. A batch that keeps failing is dropped after three
+ * attempts.
+ */
+@Service
+@DependsOn("productivityRollupService")
+public class TaskWriteBehindBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskWriteBehindBuffer.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final long flushIntervalMillis;
+
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    // Taken from pending but not committed yet; new PATCHes build on these instead of the database
+    private final ConcurrentHashMap<Long, Pending> flushing = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Counter updates;
+    private final Counter writes;
+    private final Counter dropped;
+    private final Timer flushTimer;
+    private volatile boolean running = true;
+    private Thread worker;
+
+    public TaskWriteBehindBuffer(TaskRepository taskRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 ShardRouter shardRouter,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${tasks.write-behind.enabled:false}") boolean enabled,
+                                 @Value("${tasks.write-behind.flush-interval-ms:5}") long flushIntervalMillis) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.flushIntervalMillis = flushIntervalMillis;
+
+        Gauge.builder("tasks.buffer.pending", pending, Map::size)
+                .description("Tasks with a status or position change not yet written")
+                .register(meterRegistry);
+        this.updates = Counter.builder("tasks.buffer.updates")
+                .description("Status and position changes acknowledged from the buffer")
+                .register(meterRegistry);
+        this.writes = Counter.builder("tasks.buffer.writes")
+                .description("Task rows written by the flusher")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("tasks.buffer.dropped")
+                .description("Buffered changes dropped after repeated flush failures or because the task was gone")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("tasks.buffer.flush")
+                .description("Time to write one flush of buffered changes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            worker = Thread.ofVirtual().name("task-write-behind").start(this::run);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        // Not interrupted: that would close the connection of a flush in progress
+        if (worker != null) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public TaskResponse updateStatus(Long userId, Long taskId, Task.TaskStatus status) {
+        // The precision the columns keep, so the acknowledged times are the ones read back
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        return update(userId, taskId, change -> change.withStatus(status, now));
+    }
+
+    public TaskResponse updatePosition(Long userId, Long taskId, Integer position) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        return update(userId, taskId, change -> change.withPosition(position, now));
+    }
+
+    /**
+     * Writes the user's buffered changes, waiting for any already being written. Call outside
+     * a transaction, before reading or editing the user's tasks.
+     */
+    public void flush(Long userId) {
+        if (holds(pending, userId) || holds(flushing, userId)) {
+            flush(change -> change.userId().equals(userId));
+        }
+    }
+
+    public void flush() {
+        flush(change -> true);
+    }
+
+    private TaskResponse update(Long userId, Long taskId, UnaryOperator<Pending> apply) {
+        String shard = shardRouter.currentShard();
+        while (true) {
+            TaskResponse loaded = pending.containsKey(taskId) || flushing.containsKey(taskId) ? null : load(userId, taskId);
+            Pending next = pending.compute(taskId, (id, current) -> {
+                Pending base = current;
+                if (base == null) {
+                    Pending inFlight = flushing.get(id);
+                    TaskResponse latest = inFlight != null ? inFlight.latest() : loaded;
+                    if (latest == null) {
+                        // Written since we looked; read it again
+                        return null;
+                    }
+                    base = new Pending(latest.getUserId(), shard, latest, false, false, 0);
+                }
+                if (!base.userId().equals(userId)) {
+                    throw ForbiddenException.TASK_UPDATE;
+                }
+                return apply.apply(base);
+            });
+            if (next != null) {
+                updates.increment();
+                return next.latest();
+            }
+        }
+    }
+
+    private TaskResponse load(Long userId, Long taskId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> NotFoundException.TASK);
+
+        if (!task.getUser().getId().equals(userId)) {
+            throw ForbiddenException.TASK_UPDATE;
+        }
+        return TaskResponse.fromEntity(task);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(flushIntervalMillis);
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Flushing buffered task changes failed", e);
+            }
+        }
+    }
+
+    private void flush(Predicate<Pending> which) {
+        if (pending.isEmpty() && flushing.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Map<String, Map<Long, Pending>> byShard = new HashMap<>();
+            for (Map.Entry<Long, Pending> entry : pending.entrySet()) {
+                Long taskId = entry.getKey();
+                Pending change = entry.getValue();
+                if (!which.test(change)) {
+                    continue;
+                }
+                // Visible in flushing before it leaves pending, so a concurrent PATCH always finds it
+                flushing.put(taskId, change);
+                if (pending.remove(taskId, change)) {
+                    byShard.computeIfAbsent(change.shard(), shard -> new HashMap<>()).put(taskId, change);
+                } else {
+                    flushing.remove(taskId, change);
+                }
+            }
+            byShard.forEach((shard, batch) -> {
+                try {
+                    flushTimer.record(() -> shardRouter.runOn(shard, () ->
+                            transactionTemplate.executeWithoutResult(status -> write(batch))));
+                } catch (RuntimeException e) {
+                    retry(shard, batch, e);
+                } finally {
+                    batch.forEach(flushing::remove);
+                }
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(Map<Long, Pending> batch) {
+        List<TaskResponse> before = new ArrayList<>(batch.size());
+        List<TaskResponse> after = new ArrayList<>(batch.size());
+        int missing = 0;
+        Map<Long, Task> found = new HashMap<>();
+        taskRepository.findAllById(batch.keySet()).forEach(task -> found.put(task.getId(), task));
+        for (Map.Entry<Long, Pending> entry : batch.entrySet()) {
+            Long taskId = entry.getKey();
+            Pending change = entry.getValue();
+            Task task = found.get(taskId);
+            // Deleted since, or moved off this shard by a rebalance
+            if (task == null || !task.getUser().getId().equals(change.userId())) {
+                missing++;
+                continue;
+            }
+            // Unchanged, e.g. dragged back to where it was
+            if (!change.differsFrom(task)) {
+                continue;
+            }
+            TaskResponse read = TaskResponse.fromEntity(task);
+            TaskResponse latest = change.latest();
+            if (taskRepository.applyBuffered(taskId, change.userId(), change.status(), latest.getStatus(),
+                    latest.getCompletedAt(), change.position(), latest.getPosition(), latest.getUpdatedAt()) == 0) {
+                missing++;
+                continue;
+            }
+            before.add(read);
+            after.add(change.applyTo(read));
+        }
+        for (int i = 0; i < after.size(); i++) {
+            eventPublisher.publishEvent(TaskChangedEvent.updated(before.get(i), after.get(i)));
+        }
+        writes.increment(after.size());
+        if (missing > 0) {
+            dropped.increment(missing);
+            log.warn("Dropped buffered changes for {} tasks no longer on {}", missing, shardRouter.currentShard());
+        }
+    }
+
+    private void retry(String shard, Map<Long, Pending> batch, RuntimeException e) {
+        int attempts = batch.values().iterator().next().attempts() + 1;
+        if (attempts >= MAX_ATTEMPTS) {
+            dropped.increment(batch.size());
+            log.error("Writing {} buffered task changes to {} failed {} times, dropping them", batch.size(), shard, attempts, e);
+            return;
+        }
+        log.warn("Writing {} buffered task changes to {} failed, retrying", batch.size(), shard, e);
+        // A newer change for the same task was built on this one, so it keeps its values
+        batch.forEach((taskId, change) -> pending.merge(taskId, change.failed(), Pending::over));
+    }
+
+    private static boolean holds(Map<Long, Pending> changes, Long userId) {
+        if (changes.isEmpty()) {
+            return false;
+        }
+        for (Pending change : changes.values()) {
+            if (change.userId().equals(userId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The latest acknowledged state of one task and which of its fields the buffer owns.
+     */
+    private record Pending(Long userId, String shard, TaskResponse latest, boolean status, boolean position, int attempts) {
+
+        Pending withStatus(Task.TaskStatus value, LocalDateTime now) {
+            TaskResponse next = latest.toBuilder()
+                    .status(value)
+                    .completedAt(value == Task.TaskStatus.COMPLETED ? now : null)
+                    .updatedAt(now)
+                    .build();
+            return new Pending(userId, shard, next, true, position, attempts);
+        }
+
+        Pending withPosition(Integer value, LocalDateTime now) {
+            TaskResponse next = latest.toBuilder()
+                    .position(value)
+                    .updatedAt(now)
+                    .build();
+            return new Pending(userId, shard, next, status, true, attempts);
+        }
+
+        Pending failed() {
+            return new Pending(userId, shard, latest, status, position, attempts + 1);
+        }
+
+        Pending over(Pending failed) {
+            return new Pending(userId, shard, latest, status || failed.status, position || failed.position,
+                    Math.max(attempts, failed.attempts));
+        }
+
+        boolean differsFrom(Task task) {
+            return (status && (task.getStatus() != latest.getStatus()
+                    || !Objects.equals(task.getCompletedAt(), latest.getCompletedAt())))
+                    || (position && !Objects.equals(task.getPosition(), latest.getPosition()));
+        }
+
+        TaskResponse applyTo(TaskResponse task) {
+            TaskResponse.TaskResponseBuilder next = task.toBuilder().updatedAt(latest.getUpdatedAt());
+            if (status) {
+                next.status(latest.getStatus()).completedAt(latest.getCompletedAt());
+            }
+            if (position) {
+                next.position(latest.getPosition());
+            }
+            return next.build();
+        }
+    }
+}
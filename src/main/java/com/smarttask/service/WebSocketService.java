@@ -1,6 +1,8 @@
 package com.smarttask.service;
 
+import com.smarttask.dto.TaskEventBatch;
 import com.smarttask.dto.TaskResponse;
+import com.smarttask.websocket.UserMessageRelay;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
@@ -10,31 +12,40 @@ import org.springframework.stereotype.Service;
 public class WebSocketService {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final UserMessageRelay relay;
 
     public void notifyTaskUpdate(Long userId, TaskResponse task) {
-        messagingTemplate.convertAndSendToUser(
-                userId.toString(),
+        relay.send(
+                userId,
                 "/queue/tasks",
                 task
         );
     }
 
     public void notifyTaskCreated(Long userId, TaskResponse task) {
-        messagingTemplate.convertAndSendToUser(
-                userId.toString(),
+        relay.send(
+                userId,
                 "/queue/tasks/created",
                 task
         );
     }
 
     public void notifyTaskDeleted(Long userId, Long taskId) {
-        messagingTemplate.convertAndSendToUser(
-                userId.toString(),
+        relay.send(
+                userId,
                 "/queue/tasks/deleted",
                 taskId
         );
     }
 
+    public void sendTaskEvents(Long userId, TaskEventBatch batch) {
+        relay.send(
+                userId,
+                "/queue/tasks/batch",
+                batch
+        );
+    }
+
     public void broadcastToAll(String destination, Object payload) {
         messagingTemplate.convertAndSend(destination, payload);
     }
@@ -0,0 +1,84 @@
+package com.smarttask.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps keys to shards by consistent hashing. Each shard owns a number of virtual nodes on a
+ * 64-bit ring and a key belongs to the first node at or after its hash, so adding a shard to
+ * N existing ones moves about 1/(N+1) of the keys, all of them to the new shard.
+ *
+ * Node positions depend only on the shard name, never on the order or count of shards.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> shards;
+    private final long[] positions;
+    private final int[] owners;
+
+    public ConsistentHashRing(List<String> shards, int virtualNodes) {
+        if (shards.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A hash ring needs at least one shard and one virtual node per shard");
+        }
+        this.shards = List.copyOf(shards);
+
+        int nodes = shards.size() * virtualNodes;
+        long[] hashes = new long[nodes];
+        Integer[] order = new Integer[nodes];
+        for (int node = 0; node < nodes; node++) {
+            hashes[node] = hash(shards.get(node / virtualNodes) + "#" + node % virtualNodes);
+            order[node] = node;
+        }
+        // Ties between positions, astronomically rare, go to the lower node
+        Arrays.sort(order, (a, b) -> {
+            int byPosition = Long.compareUnsigned(hashes[a], hashes[b]);
+            return byPosition != 0 ? byPosition : Integer.compare(a, b);
+        });
+
+        this.positions = new long[nodes];
+        this.owners = new int[nodes];
+        for (int i = 0; i < nodes; i++) {
+            int node = order[i];
+            positions[i] = hashes[node];
+            owners[i] = node / virtualNodes;
+        }
+    }
+
+    public String shardFor(String key) {
+        long hash = hash(key);
+        int low = 0;
+        int high = positions.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(positions[mid], hash) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return shards.get(owners[low == positions.length ? 0 : low]);
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes followed by the MurmurHash3 finalizer, which spreads the
+     * short, similar keys used here (user names, shard names) evenly over the ring.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
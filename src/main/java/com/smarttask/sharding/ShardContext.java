@@ -0,0 +1,36 @@
+package com.smarttask.sharding;
+
+/**
+ * The shard that database work on the current thread is routed to. Bound per request by
+ * {@link ShardRoutingFilter} and per unit of background work through {@link ShardRouter}; read
+ * by {@link ShardRoutingDataSource} whenever a connection is taken from the pool.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds {@code shard} and returns the previous binding, to be handed back to
+     * {@link #restore(String)}.
+     */
+    public static String bind(String shard) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    public static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.smarttask.sharding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Moves users whose owner changed after shards were added, while the application keeps serving.
+ *
+ * Only runs when sharding.rebalance-from is set. Users are walked shard by shard in id order
+ * and moved one at a time: every row the user owns is locked on the old shard, copied with its
+ * id to the new shard and committed there, then deleted from the old shard. Writers that reach
+ * the locked rows wait and then fail once the rows are gone, and the client's retry is routed
+ * to the new shard; nothing written before the lock is lost. Passes repeat until one finds
+ * nobody left to move, then routing stops consulting the old ring.
+ *
+ * Any number of nodes may run this at once; a user already moved by another node is skipped.
+ * Productivity rollups are moved as they are, and deltas still buffered for the old shard land
+ * there; {@code POST /actuator/rollups/{username}} rebuilds a user's rollups if needed.
+ */
+public class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private final ShardRouter router;
+    private final ShardRoutingDataSource dataSource;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final Map<String, JdbcTemplate> templates = new HashMap<>();
+
+    private final Counter moved;
+    private final Counter failed;
+    private volatile boolean running = true;
+    private Thread worker;
+
+    public ShardRebalancer(ShardRouter router,
+                           ShardRoutingDataSource dataSource,
+                           MeterRegistry meterRegistry,
+                           int batchSize,
+                           long pauseMillis) {
+        this.router = router;
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        dataSource.shards().forEach((shard, shardDataSource) -> templates.put(shard, new JdbcTemplate(shardDataSource)));
+
+        Gauge.builder("sharding.rebalance.active", router, r -> r.isRebalancing() ? 1 : 0)
+                .description("1 while users are being moved to newly added shards")
+                .register(meterRegistry);
+        this.moved = Counter.builder("sharding.rebalance.users")
+                .tag("result", "moved")
+                .register(meterRegistry);
+        this.failed = Counter.builder("sharding.rebalance.users")
+                .tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void routeByResidency() {
+        if (router.isRebalancing()) {
+            router.startRebalance(this::isResident);
+        }
+    }
+
+    // Not before the application is ready: new shards get their schema once all beans exist
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (router.isRebalancing()) {
+            worker = Thread.ofVirtual().name("shard-rebalancer").start(this::run);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private boolean isResident(String shard, String username) {
+        Integer count = templates.get(shard).queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, username);
+        return count != null && count > 0;
+    }
+
+    private void run() {
+        long start = System.currentTimeMillis();
+        long total = 0;
+        try {
+            while (running) {
+                Pass pass = pass();
+                total += pass.moved();
+                if (pass.moved() == 0 && pass.failed() == 0) {
+                    break;
+                }
+                log.info("Rebalance pass moved {} users, {} failed", pass.moved(), pass.failed());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (running) {
+            router.finishRebalance();
+            log.info("Rebalance complete: moved {} users in {} s; sharding.rebalance-from can be removed",
+                    total, (System.currentTimeMillis() - start) / 1000);
+        }
+    }
+
+    private Pass pass() throws InterruptedException {
+        long movedUsers = 0;
+        long failedUsers = 0;
+        for (String shard : router.shards()) {
+            long afterId = Long.MIN_VALUE;
+            List<UserRow> users;
+            while (running && !(users = page(shard, afterId)).isEmpty()) {
+                for (UserRow user : users) {
+                    String owner = router.ownerOf(user.username());
+                    if (owner.equals(shard)) {
+                        continue;
+                    }
+                    try {
+                        if (move(user, shard, owner)) {
+                            movedUsers++;
+                            moved.increment();
+                        }
+                    } catch (SQLException | RuntimeException e) {
+                        failedUsers++;
+                        failed.increment();
+                        log.warn("Moving user {} from {} to {} failed, retrying next pass", user.id(), shard, owner, e);
+                    }
+                }
+                afterId = users.get(users.size() - 1).id();
+                Thread.sleep(pauseMillis);
+            }
+        }
+        return new Pass(movedUsers, failedUsers);
+    }
+
+    private List<UserRow> page(String shard, long afterId) {
+        return templates.get(shard).query("SELECT id, username FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, row) -> new UserRow(rs.getLong(1), rs.getString(2)), afterId, batchSize);
+    }
+
+    /**
+     * Returns false when the user is no longer on {@code source}, because another node moved them.
+     */
+    private boolean move(UserRow user, String source, String target) throws SQLException {
+        try (Connection from = dataSource.shard(source).getConnection();
+             Connection to = dataSource.shard(target).getConnection()) {
+            from.setAutoCommit(false);
+            to.setAutoCommit(false);
+            try {
+                if (!lock(from, user.id())) {
+                    from.rollback();
+                    return false;
+                }
+                if (exists(to, user.id())) {
+                    // An earlier attempt committed the copy but not the delete
+                    log.warn("User {} is already on {}, removing the leftover rows on {}", user.id(), target, source);
+                } else {
+                    for (UserTable table : UserTable.ALL) {
+                        copy(from, to, table, user.id());
+                    }
+                    to.commit();
+                }
+                for (int i = UserTable.ALL.size() - 1; i >= 0; i--) {
+                    delete(from, UserTable.ALL.get(i), user.id());
+                }
+                from.commit();
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                to.rollback();
+                from.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static boolean lock(Connection connection, long userId) throws SQLException {
+        for (UserTable table : UserTable.ALL) {
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT id FROM " + table.name() + " WHERE " + table.userColumn() + " = ? FOR UPDATE")) {
+                select.setLong(1, userId);
+                try (ResultSet rows = select.executeQuery()) {
+                    // Read every row so all of them are locked
+                    int count = 0;
+                    while (rows.next()) {
+                        count++;
+                    }
+                    if (count == 0 && table == UserTable.ALL.get(0)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean exists(Connection connection, long userId) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement("SELECT 1 FROM users WHERE id = ?")) {
+            select.setLong(1, userId);
+            try (ResultSet rows = select.executeQuery()) {
+                return rows.next();
+            }
+        }
+    }
+
+    private static void copy(Connection from, Connection to, UserTable table, long userId) throws SQLException {
+        try (PreparedStatement select = from.prepareStatement(
+                "SELECT * FROM " + table.name() + " WHERE " + table.userColumn() + " = ?")) {
+            select.setLong(1, userId);
+            try (ResultSet rows = select.executeQuery()) {
+                ResultSetMetaData meta = rows.getMetaData();
+                StringJoiner columns = new StringJoiner(", ");
+                StringJoiner values = new StringJoiner(", ");
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    columns.add(meta.getColumnName(i));
+                    values.add("?");
+                }
+                try (PreparedStatement insert = to.prepareStatement(
+                        "INSERT INTO " + table.name() + " (" + columns + ") VALUES (" + values + ")")) {
+                    while (rows.next()) {
+                        for (int i = 1; i <= meta.getColumnCount(); i++) {
+                            insert.setObject(i, rows.getObject(i));
+                        }
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            }
+        }
+    }
+
+    private static void delete(Connection connection, UserTable table, long userId) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement(
+                "DELETE FROM " + table.name() + " WHERE " + table.userColumn() + " = ?")) {
+            delete.setLong(1, userId);
+            delete.executeUpdate();
+        }
+    }
+
+    private record UserRow(long id, String username) {
+    }
+
+    private record Pass(long moved, long failed) {
+    }
+}
@@ -0,0 +1,199 @@
+package com.smarttask.sharding;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard owns a user and binds that shard for a unit of work.
+ *
+ * Users are placed by consistent hashing of their user name, the one key every entry point
+ * has before any lookup: the login body, the JWT subject and the registration request. Shards
+ * are named shard-0, shard-1, ... in the order of sharding.urls, so appending a URL adds a
+ * shard without moving ring positions of the existing ones.
+ *
+ * While a rebalance is running (sharding.rebalance-from set to the previous shard count), a
+ * user whose owner changed keeps being routed to their old shard until {@link ShardRebalancer}
+ * has copied them over; whether that happened is read from the new shard, so every node
+ * routes the same way without coordination.
+ *
+ * With sharding disabled there is a single shard and binding only sets the thread-local.
+ */
+@Component
+public class ShardRouter {
+
+    /** Each shard allocates ids from its own range of this size, see {@link ShardSchemaInitializer}. */
+    public static final long ID_RANGE = 1L << 40;
+
+    // Keeps every id below 2^53, the largest integer a JavaScript client reads exactly
+    private static final int MAX_SHARDS = 8192;
+
+    private final boolean enabled;
+    private final List<String> shards;
+    private final ConsistentHashRing ring;
+
+    private volatile ConsistentHashRing previousRing;
+    private volatile BiPredicate<String, String> residency;
+
+    public ShardRouter(@Value("${sharding.enabled:false}") boolean enabled,
+                       @Value("${sharding.urls:}") String urls,
+                       @Value("${sharding.rebalance-from:0}") int rebalanceFrom,
+                       @Value("${sharding.virtual-nodes:128}") int virtualNodes) {
+        int count = enabled ? parseUrls(urls).size() : 1;
+        if (count == 0) {
+            throw new IllegalStateException("sharding.enabled is set but sharding.urls lists no databases");
+        }
+        if (count > MAX_SHARDS) {
+            throw new IllegalStateException("At most " + MAX_SHARDS + " shards are supported, got " + count);
+        }
+        if (enabled && rebalanceFrom >= count) {
+            throw new IllegalStateException("sharding.rebalance-from must be below the shard count " + count);
+        }
+
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add("shard-" + i);
+        }
+        this.enabled = enabled;
+        this.shards = List.copyOf(names);
+        this.ring = new ConsistentHashRing(shards, virtualNodes);
+        this.previousRing = enabled && rebalanceFrom > 0
+                ? new ConsistentHashRing(shards.subList(0, rebalanceFrom), virtualNodes)
+                : null;
+    }
+
+    public static List<String> parseUrls(String urls) {
+        List<String> parsed = new ArrayList<>();
+        for (String url : urls.split(",")) {
+            if (!url.isBlank()) {
+                parsed.add(url.trim());
+            }
+        }
+        return parsed;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    public String defaultShard() {
+        return shards.get(0);
+    }
+
+    public int indexOf(String shard) {
+        return shards.indexOf(shard);
+    }
+
+    /**
+     * The shard the ring assigns to {@code username}, whether or not the user has been moved
+     * there yet.
+     */
+    public String ownerOf(String username) {
+        return shards.size() == 1 ? shards.get(0) : ring.shardFor(username);
+    }
+
+    /**
+     * The shard that currently holds {@code username}.
+     */
+    public String shardFor(String username) {
+        String owner = ownerOf(username);
+        ConsistentHashRing previous = previousRing;
+        if (previous == null) {
+            return owner;
+        }
+        String before = previous.shardFor(username);
+        if (before.equals(owner)) {
+            return owner;
+        }
+        BiPredicate<String, String> check = residency;
+        return check != null && check.test(owner, username) ? owner : before;
+    }
+
+    public String currentShard() {
+        String bound = ShardContext.current();
+        return bound != null ? bound : defaultShard();
+    }
+
+    public boolean isRebalancing() {
+        return previousRing != null;
+    }
+
+    void startRebalance(BiPredicate<String, String> residency) {
+        this.residency = residency;
+    }
+
+    void finishRebalance() {
+        previousRing = null;
+    }
+
+    public <T> T callAs(String username, Supplier<T> work) {
+        return callOn(shardFor(username), work);
+    }
+
+    public void runAs(String username, Runnable work) {
+        runOn(shardFor(username), work);
+    }
+
+    /**
+     * Runs {@code work} with {@code shard} bound. Must be entered before a transaction starts:
+     * the transaction's connection has already been taken from the shard bound at that time.
+     */
+    public <T> T callOn(String shard, Supplier<T> work) {
+        if (enabled && !shard.equals(currentShard()) && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch to " + shard + " inside a transaction on " + currentShard());
+        }
+        String previous = ShardContext.bind(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    public void runOn(String shard, Runnable work) {
+        callOn(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code work} once per shard with that shard bound. A failing shard does not stop the
+     * others; the first failure is rethrown at the end with the rest suppressed.
+     */
+    public void forEachShard(Runnable work) {
+        RuntimeException failure = null;
+        for (String shard : shards) {
+            try {
+                runOn(shard, work);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public boolean anyShardMatches(Supplier<Boolean> check) {
+        for (String shard : shards) {
+            if (Boolean.TRUE.equals(callOn(shard, check))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
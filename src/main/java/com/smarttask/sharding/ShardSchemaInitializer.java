@@ -0,0 +1,113 @@
+package com.smarttask.sharding;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.relational.SchemaManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Prepares every shard at startup, before the server accepts requests.
+ *
+ * Hibernate's ddl-auto only reaches the default shard. The others are checked for the mapped
+ * tables in their own catalog, since Hibernate's validator looks tables up in the default
+ * shard's, and unless ddl-auto is validate or none get them created when any is missing;
+ * existing tables are never dropped or altered, so column changes on them need a migration. Each shard k then allocates new ids from [k * 2^40, (k + 1) * 2^40), which keeps
+ * ids unique across shards and lets {@link ShardRebalancer} move rows without renumbering them.
+ */
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    private final ShardRouter router;
+    private final ShardRoutingDataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final String ddlAuto;
+
+    public ShardSchemaInitializer(ShardRouter router,
+                                  ShardRoutingDataSource dataSource,
+                                  EntityManagerFactory entityManagerFactory,
+                                  String ddlAuto) {
+        this.router = router;
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.ddlAuto = ddlAuto;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Set<String> tables = mappedTables(sessionFactory);
+        for (String shard : router.shards()) {
+            if (!shard.equals(router.defaultShard()) && !"none".equalsIgnoreCase(ddlAuto)) {
+                syncSchema(shard, tables, sessionFactory.getSchemaManager());
+            }
+            allocateIdRange(shard);
+        }
+    }
+
+    private void syncSchema(String shard, Set<String> tables, SchemaManager schemaManager) {
+        List<String> missing = missingTables(shard, tables);
+        if (missing.isEmpty()) {
+            return;
+        }
+        if ("validate".equalsIgnoreCase(ddlAuto)) {
+            throw new IllegalStateException("Schema of " + shard + " is missing tables " + missing);
+        }
+        log.warn("Schema of {} is missing tables {}, creating the mapped tables", shard, missing);
+        router.runOn(shard, () -> schemaManager.exportMappedObjects(true));
+    }
+
+    private static Set<String> mappedTables(SessionFactory sessionFactory) {
+        Set<String> tables = new TreeSet<>();
+        sessionFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel().forEachEntityDescriptor(
+                entity -> tables.add(((AbstractEntityPersister) entity).getTableName()));
+        return tables;
+    }
+
+    private List<String> missingTables(String shard, Set<String> tables) {
+        return new JdbcTemplate(dataSource.shard(shard)).execute((ConnectionCallback<List<String>>) connection -> {
+            DatabaseMetaData meta = connection.getMetaData();
+            List<String> missing = new ArrayList<>();
+            for (String table : tables) {
+                String name = meta.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT)
+                        : meta.storesLowerCaseIdentifiers() ? table.toLowerCase(Locale.ROOT) : table;
+                try (ResultSet found = meta.getTables(connection.getCatalog(), connection.getSchema(), name, null)) {
+                    if (!found.next()) {
+                        missing.add(table);
+                    }
+                }
+            }
+            return missing;
+        });
+    }
+
+    private void allocateIdRange(String shard) {
+        long base = router.indexOf(shard) * ShardRouter.ID_RANGE;
+        if (base == 0) {
+            return;
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource.shard(shard));
+        for (UserTable table : UserTable.ALL) {
+            // Rows moved in from other shards keep their ids, so only ids in the own range count
+            Long own = jdbc.queryForObject("SELECT MAX(id) FROM " + table.name() + " WHERE id >= ? AND id < ?",
+                    Long.class, base, base + ShardRouter.ID_RANGE);
+            if (own == null) {
+                jdbc.execute("ALTER TABLE " + table.name() + " ALTER COLUMN id RESTART WITH " + (base + 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.smarttask.sharding;
+
+import java.util.List;
+
+/**
+ * A table whose rows belong to one user and move with them between shards.
+ */
+record UserTable(String name, String userColumn) {
+
+    /** In insert order: users first, since tasks reference them. */
+    static final List<UserTable> ALL = List.of(
+            new UserTable("users", "id"),
+            new UserTable("tasks", "user_id"),
+            new UserTable("task_changes", "user_id"),
+            new UserTable("productivity_rollups", "user_id"));
+}
@@ -0,0 +1,24 @@
+package com.smarttask.timing;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds every repository call to the current request's db phase. Spring Data already times
+ * invocations for its repository metrics, so this only reads the measured duration.
+ */
+@Component
+public class RepositoryTimingPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(invocation ->
+                    RequestTiming.record(RequestTiming.Phase.DB, invocation.getDuration(TimeUnit.NANOSECONDS))));
+        }
+        return bean;
+    }
+}
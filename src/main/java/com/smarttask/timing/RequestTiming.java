@@ -0,0 +1,176 @@
+package com.smarttask.timing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phase timings for the request being handled on the current thread. Code on the request
+ * path brackets a phase with {@link #start()} and {@link #stop(Phase, long)}; both are no-ops
+ * when the request is not sampled.
+ *
+ * Phases may nest: auth includes the user lookup, and db includes every repository call,
+ * the user lookup's query among them. A recorder holds fixed-size arrays, so a mark does not
+ * allocate. Past the mark limit, phases are only counted, which caps the recorder's cost for
+ * requests that map or load thousands of rows.
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        AUTH("auth"), USER("user"), DB("db"), MAP("map"), WRITE("write");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+
+        public String metric() {
+            return metric;
+        }
+    }
+
+    static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final int maxMarks;
+    private final long[] nanos = new long[PHASES.length];
+    private final int[] counts = new int[PHASES.length];
+    private int marks;
+    private boolean capped;
+    private long writeStartNanos = NOT_TIMED;
+
+    private RequestTiming(int maxMarks) {
+        this.maxMarks = maxMarks;
+    }
+
+    public static RequestTiming begin(int maxMarks) {
+        RequestTiming timing = new RequestTiming(maxMarks);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static long start() {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return NOT_TIMED;
+        }
+        if (timing.marks >= timing.maxMarks) {
+            timing.capped = true;
+            return NOT_TIMED;
+        }
+        return System.nanoTime();
+    }
+
+    public static void stop(Phase phase, long start) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return;
+        }
+        if (start == NOT_TIMED) {
+            timing.counts[phase.ordinal()]++;
+        } else {
+            timing.add(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Adds a duration measured elsewhere, such as by Spring Data's invocation listeners.
+     */
+    public static void record(Phase phase, long durationNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(phase, durationNanos);
+        }
+    }
+
+    private void add(Phase phase, long durationNanos) {
+        nanos[phase.ordinal()] += durationNanos;
+        counts[phase.ordinal()]++;
+        marks++;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Marks the start of the response body; everything until the request completes counts as write.
+     */
+    public void beginWrite() {
+        writeStartNanos = System.nanoTime();
+    }
+
+    public void endWrite() {
+        if (writeStartNanos != NOT_TIMED) {
+            add(Phase.WRITE, System.nanoTime() - writeStartNanos);
+            writeStartNanos = NOT_TIMED;
+        }
+    }
+
+    public long nanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    public int count(Phase phase) {
+        return counts[phase.ordinal()];
+    }
+
+    public boolean isCapped() {
+        return capped;
+    }
+
+    /**
+     * Server-Timing header value for the phases seen so far, plus the total when given.
+     */
+    public String header(long totalNanos) {
+        StringBuilder header = new StringBuilder(96);
+        for (Phase phase : PHASES) {
+            if (counts[phase.ordinal()] > 0) {
+                appendEntry(header, phase.metric(), nanos[phase.ordinal()]);
+            }
+        }
+        if (totalNanos >= 0) {
+            appendEntry(header, "total", totalNanos);
+        }
+        return header.toString();
+    }
+
+    /**
+     * Space-separated key=value pairs for the slow request log.
+     */
+    public String breakdown(long totalNanos) {
+        StringBuilder line = new StringBuilder(128).append("total_ms=").append(millis(totalNanos));
+        for (Phase phase : PHASES) {
+            int count = counts[phase.ordinal()];
+            if (count > 0) {
+                line.append(' ').append(phase.metric()).append("_ms=").append(millis(nanos[phase.ordinal()]));
+                if (count > 1) {
+                    line.append(' ').append(phase.metric()).append("_count=").append(count);
+                }
+            }
+        }
+        if (capped) {
+            line.append(" capped=true");
+        }
+        return line.toString();
+    }
+
+    private static void appendEntry(StringBuilder header, String metric, long durationNanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(metric).append(";dur=").append(millis(durationNanos));
+    }
+
+    private static String millis(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        long fraction = micros % 1000;
+        return micros / 1000 + "." + (fraction < 10 ? "00" : fraction < 100 ? "0" : "") + fraction;
+    }
+}
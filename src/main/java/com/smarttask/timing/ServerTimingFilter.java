@@ -0,0 +1,139 @@
+package com.smarttask.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a {@link RequestTiming} for a sample of API requests and reports it in a
+ * Server-Timing header. Runs ahead of the security filters so auth is included.
+ *
+ * The header is set when the body is first written, with the phases finished by then, and
+ * replaced with the full breakdown including write and total if the response is still
+ * uncommitted at the end. Requests slower than the threshold are logged with their
+ * breakdown, or with the total alone when they were not sampled. Async requests are skipped.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    @Value("${server-timing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${server-timing.sample-rate:1.0}")
+    private double sampleRate;
+
+    @Value("${server-timing.header-enabled:true}")
+    private boolean headerEnabled;
+
+    @Value("${server-timing.max-marks:256}")
+    private int maxMarks;
+
+    @Value("${server-timing.slow-threshold-ms:500}")
+    private long slowThresholdMillis;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                if (!request.isAsyncStarted()) {
+                    logIfSlow(request, response, System.nanoTime() - start, null);
+                }
+            }
+            return;
+        }
+
+        RequestTiming timing = RequestTiming.begin(maxMarks);
+        try {
+            filterChain.doFilter(request, new TimedResponse(response, timing, headerEnabled));
+        } finally {
+            RequestTiming.end();
+            if (!request.isAsyncStarted()) {
+                timing.endWrite();
+                long total = timing.elapsedNanos();
+                if (headerEnabled && !response.isCommitted()) {
+                    response.setHeader(HEADER, timing.header(total));
+                }
+                logIfSlow(request, response, total, timing);
+            }
+        }
+    }
+
+    private void logIfSlow(HttpServletRequest request, HttpServletResponse response, long totalNanos, RequestTiming timing) {
+        if (totalNanos < TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis)) {
+            return;
+        }
+        log.warn("Slow request method={} path={} status={} {}", request.getMethod(), request.getRequestURI(),
+                response.getStatus(),
+                timing != null ? timing.breakdown(totalNanos) : "total_ms=" + TimeUnit.NANOSECONDS.toMillis(totalNanos) + " sampled=false");
+    }
+
+    /**
+     * Starts the write phase, and sets the header with the phases so far, when the body is first opened.
+     */
+    private static class TimedResponse extends HttpServletResponseWrapper {
+
+        private final RequestTiming timing;
+        private final boolean headerEnabled;
+        private boolean opened;
+
+        TimedResponse(HttpServletResponse response, RequestTiming timing, boolean headerEnabled) {
+            super(response);
+            this.timing = timing;
+            this.headerEnabled = headerEnabled;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            beginWrite();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            beginWrite();
+            return super.getWriter();
+        }
+
+        private void beginWrite() {
+            if (opened) {
+                return;
+            }
+            opened = true;
+            String header = timing.header(-1);
+            if (headerEnabled && !header.isEmpty() && !isCommitted()) {
+                setHeader(HEADER, header);
+            }
+            timing.beginWrite();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.smarttask.websocket;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Shared state between backend nodes: which nodes hold sessions for a user, and a private
+ * channel per node for messages addressed to those sessions.
+ */
+public interface Backplane {
+
+    void publish(String nodeId, String message);
+
+    void subscribe(String nodeId, Consumer<String> handler);
+
+    /**
+     * Marks {@code nodeId} as holding sessions for the user. Must be repeated before the
+     * presence TTL passes, so entries of crashed nodes expire on their own.
+     */
+    void addPresence(Long userId, String nodeId);
+
+    void removePresence(Long userId, String nodeId);
+
+    Set<String> nodesFor(Long userId);
+}
@@ -0,0 +1,29 @@
+package com.smarttask.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+/**
+ * Counts messages sent to one of the STOMP message channels. On the broker channel this is the
+ * rate of everything published through SimpMessagingTemplate.
+ */
+public class ChannelMessageCounter implements ChannelInterceptor {
+
+    private final Counter messages;
+
+    public ChannelMessageCounter(String channel, MeterRegistry meterRegistry) {
+        this.messages = Counter.builder("websocket.channel.messages")
+                .description("Messages sent to a STOMP message channel")
+                .tag("channel", channel)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        messages.increment();
+        return message;
+    }
+}
@@ -0,0 +1,228 @@
+package com.smarttask.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Outbound buffer for one session that never blocks the caller.
+ *
+ * Frames are queued and written by a single drain task. While a frame is still queued, a newer
+ * task batch for the same subscription is merged into it instead of queued behind it, keeping
+ * the latest state of each task, so a lagging client catches up with one frame. The session is
+ * closed once its queue exceeds the byte limit or a single write takes longer than the time
+ * limit.
+ */
+public class ConflatingWebSocketSession extends WebSocketSessionDecorator {
+
+    private static final String TASK_BATCH_DESTINATION = "destination:/user/queue/tasks/batch";
+
+    private final SessionBackpressure backpressure;
+    private final ObjectMapper objectMapper;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Object, WebSocketMessage<?>> pending = new LinkedHashMap<>();
+    private long pendingBytes;
+    private long nextKey;
+    private boolean draining;
+
+    private volatile long sendStartedNanos;
+    private volatile boolean evicted;
+
+    public ConflatingWebSocketSession(WebSocketSession delegate, SessionBackpressure backpressure, ObjectMapper objectMapper) {
+        super(delegate);
+        this.backpressure = backpressure;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (evicted) {
+            return;
+        }
+        long started = sendStartedNanos;
+        if (started != 0 && System.nanoTime() - started > backpressure.getSendTimeLimitNanos()) {
+            evict("send time limit exceeded");
+            return;
+        }
+
+        boolean startDrain = false;
+        lock.lock();
+        try {
+            String subscription = taskBatchSubscription(message);
+            WebSocketMessage<?> queued = subscription != null ? pending.get(subscription) : null;
+            WebSocketMessage<?> merged = queued != null ? merge((TextMessage) queued, (TextMessage) message) : null;
+            if (merged != null) {
+                pending.put(subscription, merged);
+                pendingBytes += merged.getPayloadLength() - queued.getPayloadLength();
+                backpressure.recordConflated();
+            } else {
+                // A frame that could not be merged queues behind the one already waiting
+                pending.put(subscription != null && queued == null ? subscription : nextKey++, message);
+                pendingBytes += message.getPayloadLength();
+            }
+            backpressure.recordQueueDepth(pending.size());
+            if (pendingBytes > backpressure.getMaxQueuedBytes()) {
+                pending.clear();
+                pendingBytes = 0;
+                evicted = true;
+            } else if (!draining) {
+                draining = true;
+                startDrain = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (evicted) {
+            evict("send buffer limit exceeded");
+        } else if (startDrain) {
+            backpressure.execute(this::drain);
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isLagging() {
+        long started = sendStartedNanos;
+        return started != 0 && System.nanoTime() - started > backpressure.getLagThresholdNanos();
+    }
+
+    private void drain() {
+        while (!evicted) {
+            WebSocketMessage<?> next;
+            lock.lock();
+            try {
+                Iterator<Map.Entry<Object, WebSocketMessage<?>>> first = pending.entrySet().iterator();
+                if (!first.hasNext()) {
+                    draining = false;
+                    return;
+                }
+                next = first.next().getValue();
+                first.remove();
+                pendingBytes -= next.getPayloadLength();
+            } finally {
+                lock.unlock();
+            }
+
+            long start = System.nanoTime();
+            sendStartedNanos = start;
+            try {
+                getDelegate().sendMessage(next);
+            } catch (IOException | RuntimeException e) {
+                evict("send failed: " + e.getMessage());
+            } finally {
+                sendStartedNanos = 0;
+                backpressure.recordSendLatency(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void evict(String reason) {
+        evicted = true;
+        lock.lock();
+        try {
+            pending.clear();
+            pendingBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+        backpressure.recordEviction(getId(), reason);
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException ignored) {
+            // The connection is going away either way
+        }
+    }
+
+    private static String taskBatchSubscription(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage text) || !text.getPayload().startsWith("MESSAGE\n")) {
+            return null;
+        }
+        String frame = text.getPayload();
+        int headersEnd = frame.indexOf("\n\n");
+        if (headersEnd < 0 || !frame.substring(0, headersEnd + 1).contains("\n" + TASK_BATCH_DESTINATION + "\n")) {
+            return null;
+        }
+        for (String header : frame.substring(0, headersEnd).split("\n")) {
+            if (header.startsWith("subscription:")) {
+                return header;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Folds the events of {@code newer} into {@code older}, or returns null if either frame
+     * cannot be parsed, in which case both are sent as they are.
+     */
+    private TextMessage merge(TextMessage older, TextMessage newer) {
+        try {
+            String olderFrame = older.getPayload();
+            String newerFrame = newer.getPayload();
+            ObjectNode olderBody = (ObjectNode) objectMapper.readTree(body(olderFrame));
+            JsonNode newerBody = objectMapper.readTree(body(newerFrame));
+
+            Map<Long, JsonNode> events = new LinkedHashMap<>();
+            for (JsonNode event : olderBody.path("events")) {
+                events.put(event.path("taskId").asLong(), event);
+            }
+            for (JsonNode event : newerBody.path("events")) {
+                long taskId = event.path("taskId").asLong();
+                JsonNode previous = events.get(taskId);
+                boolean wasCreated = previous != null && "CREATED".equals(previous.path("type").asText());
+                if (wasCreated && "DELETED".equals(event.path("type").asText())) {
+                    events.remove(taskId);
+                } else if (wasCreated) {
+                    events.put(taskId, ((ObjectNode) event.deepCopy()).put("type", "CREATED"));
+                } else {
+                    events.put(taskId, event);
+                }
+            }
+
+            ArrayNode mergedEvents = olderBody.putArray("events");
+            events.values().forEach(mergedEvents::add);
+            olderBody.put("changes", olderBody.path("changes").asInt() + newerBody.path("changes").asInt());
+            return new TextMessage(withBody(newerFrame, objectMapper.writeValueAsString(olderBody)));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String body(String frame) {
+        int start = frame.indexOf("\n\n") + 2;
+        int end = frame.lastIndexOf('\0');
+        return frame.substring(start, end >= start ? end : frame.length());
+    }
+
+    private static String withBody(String frame, String body) {
+        StringBuilder rebuilt = new StringBuilder(frame.length() + body.length());
+        for (String header : frame.substring(0, frame.indexOf("\n\n")).split("\n")) {
+            if (!header.startsWith("content-length:")) {
+                rebuilt.append(header).append('\n');
+            }
+        }
+        rebuilt.append("content-length:").append(body.getBytes(StandardCharsets.UTF_8).length).append("\n\n");
+        return rebuilt.append(body).append('\0').toString();
+    }
+}
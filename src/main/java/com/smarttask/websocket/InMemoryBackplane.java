@@ -0,0 +1,48 @@
+package com.smarttask.websocket;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Backplane for a single node, or for several relays in one JVM during tests. Messages are
+ * handed to the subscriber on the publishing thread.
+ */
+public class InMemoryBackplane implements Backplane {
+
+    private final Map<String, Consumer<String>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> presence = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String nodeId, String message) {
+        Consumer<String> subscriber = subscribers.get(nodeId);
+        if (subscriber != null) {
+            subscriber.accept(message);
+        }
+    }
+
+    @Override
+    public void subscribe(String nodeId, Consumer<String> handler) {
+        subscribers.put(nodeId, handler);
+    }
+
+    @Override
+    public void addPresence(Long userId, String nodeId) {
+        presence.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(nodeId);
+    }
+
+    @Override
+    public void removePresence(Long userId, String nodeId) {
+        presence.computeIfPresent(userId, (id, nodes) -> {
+            nodes.remove(nodeId);
+            return nodes.isEmpty() ? null : nodes;
+        });
+    }
+
+    @Override
+    public Set<String> nodesFor(Long userId) {
+        Set<String> nodes = presence.get(userId);
+        return nodes != null ? Set.copyOf(nodes) : Set.of();
+    }
+}
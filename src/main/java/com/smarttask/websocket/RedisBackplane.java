@@ -0,0 +1,73 @@
+package com.smarttask.websocket;
+
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Backplane on the shared Redis. Presence is a sorted set per user scored by the last
+ * heartbeat of each node, so nodes that stop refreshing drop out after {@code presenceTtl}.
+ * Each node subscribes only to its own channel.
+ */
+public class RedisBackplane implements Backplane, AutoCloseable {
+
+    private static final String CHANNEL_PREFIX = "ws:node:";
+    private static final String PRESENCE_PREFIX = "ws:presence:";
+
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer listeners;
+    private final Duration presenceTtl;
+
+    public RedisBackplane(RedisConnectionFactory connectionFactory, Duration presenceTtl) {
+        this.redis = new StringRedisTemplate(connectionFactory);
+        this.presenceTtl = presenceTtl;
+        this.listeners = new RedisMessageListenerContainer();
+        this.listeners.setConnectionFactory(connectionFactory);
+        this.listeners.afterPropertiesSet();
+        this.listeners.start();
+    }
+
+    @Override
+    public void publish(String nodeId, String message) {
+        redis.convertAndSend(CHANNEL_PREFIX + nodeId, message);
+    }
+
+    @Override
+    public void subscribe(String nodeId, Consumer<String> handler) {
+        listeners.addMessageListener((message, pattern) -> handler.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CHANNEL_PREFIX + nodeId));
+    }
+
+    @Override
+    public void addPresence(Long userId, String nodeId) {
+        String key = PRESENCE_PREFIX + userId;
+        long now = System.currentTimeMillis();
+        redis.opsForZSet().add(key, nodeId, now);
+        redis.opsForZSet().removeRangeByScore(key, 0, now - presenceTtl.toMillis());
+        redis.expire(key, presenceTtl);
+    }
+
+    @Override
+    public void removePresence(Long userId, String nodeId) {
+        redis.opsForZSet().remove(PRESENCE_PREFIX + userId, nodeId);
+    }
+
+    @Override
+    public Set<String> nodesFor(Long userId) {
+        Set<String> nodes = redis.opsForZSet().rangeByScore(PRESENCE_PREFIX + userId,
+                System.currentTimeMillis() - presenceTtl.toMillis(), Double.POSITIVE_INFINITY);
+        return nodes != null ? nodes : Set.of();
+    }
+
+    @Override
+    public void close() throws Exception {
+        listeners.stop();
+        listeners.destroy();
+    }
+}
@@ -0,0 +1,127 @@
+package com.smarttask.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits and metrics for outbound WebSocket traffic. Every session is wrapped in a
+ * {@link ConflatingWebSocketSession}, whose writes run on virtual threads so a slow client
+ * only ever blocks its own drain task.
+ *
+ * Queue depth and send latency are recorded per send into shared distributions rather than
+ * as one meter per session, which keeps the number of time series independent of the number
+ * of connected clients.
+ */
+@Component
+public class SessionBackpressure {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionBackpressure.class);
+
+    private final ObjectMapper objectMapper;
+    private final long maxQueuedBytes;
+    private final long sendTimeLimitNanos;
+    private final long lagThresholdNanos;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, ConflatingWebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    private final DistributionSummary queueDepth;
+    private final Timer sendLatency;
+    private final Counter conflated;
+    private final Counter evicted;
+
+    public SessionBackpressure(ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${websocket.session.max-queued-bytes:524288}") long maxQueuedBytes,
+                               @Value("${websocket.session.send-time-limit-ms:10000}") long sendTimeLimitMillis,
+                               @Value("${websocket.session.lag-threshold-ms:1000}") long lagThresholdMillis) {
+        this.objectMapper = objectMapper;
+        this.maxQueuedBytes = maxQueuedBytes;
+        this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMillis);
+        this.lagThresholdNanos = TimeUnit.MILLISECONDS.toNanos(lagThresholdMillis);
+
+        this.queueDepth = DistributionSummary.builder("websocket.session.queue.depth")
+                .description("Frames queued for a session when a new frame arrives")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sendLatency = Timer.builder("websocket.session.send.latency")
+                .description("Time to write one frame to a session")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.conflated = Counter.builder("websocket.session.conflated")
+                .description("Task batch frames merged into a frame still waiting to be sent")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("websocket.session.evicted")
+                .description("Sessions closed for exceeding the send buffer or time limit")
+                .register(meterRegistry);
+        Gauge.builder("websocket.sessions.lagging", sessions,
+                        s -> s.values().stream().filter(ConflatingWebSocketSession::isLagging).count())
+                .description("Sessions with a write in progress for longer than the lag threshold")
+                .register(meterRegistry);
+        Gauge.builder("websocket.sessions.open", sessions, Map::size)
+                .register(meterRegistry);
+    }
+
+    public WebSocketSession decorate(WebSocketSession session) {
+        ConflatingWebSocketSession decorated = new ConflatingWebSocketSession(session, this, objectMapper);
+        sessions.put(session.getId(), decorated);
+        return decorated;
+    }
+
+    public void release(WebSocketSession session) {
+        sessions.remove(session.getId());
+    }
+
+    long getMaxQueuedBytes() {
+        return maxQueuedBytes;
+    }
+
+    long getSendTimeLimitNanos() {
+        return sendTimeLimitNanos;
+    }
+
+    long getLagThresholdNanos() {
+        return lagThresholdNanos;
+    }
+
+    void execute(Runnable drain) {
+        senders.execute(drain);
+    }
+
+    void recordQueueDepth(int depth) {
+        queueDepth.record(depth);
+    }
+
+    void recordSendLatency(long nanos) {
+        sendLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordConflated() {
+        conflated.increment();
+    }
+
+    void recordEviction(String sessionId, String reason) {
+        evicted.increment();
+        log.warn("Closing slow WebSocket session {}: {}", sessionId, reason);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+}
@@ -0,0 +1,108 @@
+package com.smarttask.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivers user-destination messages to sessions on any node.
+ *
+ * Each node tracks its own sessions per user and advertises on the {@link Backplane} which
+ * users it holds. A message is sent to local sessions directly and published only to the
+ * other nodes that hold sessions for that user; nodes without the user never see it.
+ */
+public class UserMessageRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(UserMessageRelay.class);
+
+    private final String nodeId;
+    private final Backplane backplane;
+    private final UserDestinationSender localSender;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, Set<String>> localSessions = new ConcurrentHashMap<>();
+
+    public UserMessageRelay(String nodeId, Backplane backplane, UserDestinationSender localSender, ObjectMapper objectMapper) {
+        this.nodeId = nodeId;
+        this.backplane = backplane;
+        this.localSender = localSender;
+        this.objectMapper = objectMapper;
+        backplane.subscribe(nodeId, this::receive);
+    }
+
+    public void send(Long userId, String destination, Object payload) {
+        if (localSessions.containsKey(userId)) {
+            localSender.send(userId.toString(), destination, payload);
+        }
+
+        String message = null;
+        for (String node : backplane.nodesFor(userId)) {
+            if (node.equals(nodeId)) {
+                continue;
+            }
+            if (message == null) {
+                ObjectNode envelope = objectMapper.createObjectNode();
+                envelope.put("userId", userId);
+                envelope.put("destination", destination);
+                envelope.set("payload", objectMapper.valueToTree(payload));
+                message = envelope.toString();
+            }
+            backplane.publish(node, message);
+        }
+    }
+
+    public void sessionOpened(Long userId, String sessionId) {
+        localSessions.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        backplane.addPresence(userId, nodeId);
+    }
+
+    public void sessionClosed(Long userId, String sessionId) {
+        Set<String> remaining = localSessions.computeIfPresent(userId, (id, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+        if (remaining == null) {
+            backplane.removePresence(userId, nodeId);
+        }
+    }
+
+    public int localUserCount() {
+        return localSessions.size();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Scheduled(fixedDelayString = "${websocket.relay.presence-refresh-ms:30000}")
+    public void refreshPresence() {
+        for (Long userId : localSessions.keySet()) {
+            backplane.addPresence(userId, nodeId);
+        }
+    }
+
+    private void receive(String message) {
+        try {
+            JsonNode envelope = objectMapper.readTree(message);
+            long userId = envelope.path("userId").asLong();
+            // Presence can be stale for a moment after the last session closed
+            if (localSessions.containsKey(userId)) {
+                localSender.send(Long.toString(userId), envelope.path("destination").asText(), envelope.path("payload"));
+            }
+        } catch (Exception e) {
+            log.warn("Dropping malformed relay message on node {}", nodeId, e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface UserDestinationSender {
+
+        void send(String user, String destination, Object payload);
+    }
+}
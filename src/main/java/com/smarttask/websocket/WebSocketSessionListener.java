@@ -0,0 +1,69 @@
+package com.smarttask.websocket;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.security.Principal;
+
+/**
+ * Feeds STOMP session lifecycle into the {@link UserMessageRelay} and subscriptions into the
+ * {@link WireFormatSender}. Sessions without an authenticated user cannot receive user
+ * destinations and are not tracked.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebSocketSessionListener {
+
+    private final UserMessageRelay relay;
+    private final WireFormatSender wireFormatSender;
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Long userId = userId(event.getUser());
+        if (userId != null) {
+            relay.sessionOpened(userId, StompHeaderAccessor.wrap(event.getMessage()).getSessionId());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        wireFormatSender.sessionClosed(event.getSessionId());
+        Long userId = userId(event.getUser());
+        if (userId != null) {
+            relay.sessionClosed(userId, event.getSessionId());
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        Long userId = userId(event.getUser());
+        if (userId != null) {
+            StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+            wireFormatSender.subscribed(userId.toString(), accessor.getSessionId(),
+                    accessor.getSubscriptionId(), accessor.getDestination());
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        wireFormatSender.unsubscribed(accessor.getSessionId(), accessor.getSubscriptionId());
+    }
+
+    private static Long userId(Principal principal) {
+        if (principal == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(principal.getName());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
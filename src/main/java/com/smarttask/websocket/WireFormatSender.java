@@ -0,0 +1,102 @@
+package com.smarttask.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttask.config.CompactWireFormat;
+import com.smarttask.dto.TaskEventBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends user-destination messages to this node's sessions in the formats they subscribed to.
+ *
+ * JSON goes to the plain destination as before. Destinations in {@link #BINARY_VARIANTS} also
+ * have a CBOR twin at the same path plus {@value #BINARY_SUFFIX}; the payload is encoded once
+ * per message and only while the user has a session subscribed to it. The byte[] payload goes
+ * out as application/octet-stream, which is what makes the STOMP handler send a binary
+ * WebSocket frame.
+ */
+public class WireFormatSender implements UserMessageRelay.UserDestinationSender {
+
+    private static final Logger log = LoggerFactory.getLogger(WireFormatSender.class);
+
+    public static final String BINARY_SUFFIX = ".cbor";
+
+    private static final String USER_PREFIX = "/user";
+
+    private static final Map<String, Class<?>> BINARY_VARIANTS = Map.of(
+            "/queue/tasks/batch", TaskEventBatch.class
+    );
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final CompactWireFormat wireFormat;
+
+    // user id -> "sessionId:subscriptionId" of binary subscriptions on this node
+    private final Map<String, Set<String>> binarySubscriptions = new ConcurrentHashMap<>();
+    private final Map<String, String> subscriptionOwners = new ConcurrentHashMap<>();
+
+    public WireFormatSender(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper, CompactWireFormat wireFormat) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public void send(String user, String destination, Object payload) {
+        messagingTemplate.convertAndSendToUser(user, destination, payload);
+
+        Class<?> type = BINARY_VARIANTS.get(destination);
+        if (type == null || !binarySubscriptions.containsKey(user)) {
+            return;
+        }
+        try {
+            // Payloads relayed from another node arrive as JSON trees
+            Object typed = payload instanceof JsonNode tree ? objectMapper.treeToValue(tree, type) : payload;
+            messagingTemplate.convertAndSendToUser(user, destination + BINARY_SUFFIX, wireFormat.write(typed));
+        } catch (Exception e) {
+            log.warn("Could not send binary variant of {} to user {}", destination, user, e);
+        }
+    }
+
+    public void subscribed(String user, String sessionId, String subscriptionId, String destination) {
+        if (destination == null || !destination.startsWith(USER_PREFIX) || !destination.endsWith(BINARY_SUFFIX)
+                || !BINARY_VARIANTS.containsKey(destination.substring(USER_PREFIX.length(), destination.length() - BINARY_SUFFIX.length()))) {
+            return;
+        }
+        String key = sessionId + ":" + subscriptionId;
+        subscriptionOwners.put(key, user);
+        binarySubscriptions.computeIfAbsent(user, id -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    public void unsubscribed(String sessionId, String subscriptionId) {
+        remove(sessionId + ":" + subscriptionId);
+    }
+
+    public void sessionClosed(String sessionId) {
+        String prefix = sessionId + ":";
+        subscriptionOwners.keySet().stream()
+                .filter(key -> key.startsWith(prefix))
+                .toList()
+                .forEach(this::remove);
+    }
+
+    public boolean hasBinarySubscribers(String user) {
+        return binarySubscriptions.containsKey(user);
+    }
+
+    private void remove(String key) {
+        String user = subscriptionOwners.remove(key);
+        if (user != null) {
+            binarySubscriptions.computeIfPresent(user, (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+}
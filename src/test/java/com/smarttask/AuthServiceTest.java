@@ -3,15 +3,19 @@ package com.smarttask;
 import com.smarttask.dto.AuthResponse;
 import com.smarttask.dto.RegisterRequest;
 import com.smarttask.entity.User;
+import com.smarttask.repository.EmailClaimRepository;
 import com.smarttask.repository.UserRepository;
 import com.smarttask.security.JwtHelper;
 import com.smarttask.service.AuthService;
+import com.smarttask.sharding.ShardRouter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -30,6 +34,9 @@ public class AuthServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private EmailClaimRepository emailClaimRepository;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
@@ -42,6 +49,9 @@ public class AuthServiceTest {
     @Mock
     private UserDetailsService userDetailsService;
 
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(false, "", 0, 128);
+
     @InjectMocks
     private AuthService authService;
 
@@ -75,6 +85,7 @@ public class AuthServiceTest {
         assertEquals("jwt-token", response.getToken());
         assertEquals("Bearer", response.getType());
         assertEquals("testuser", response.getUsername());
+        verify(emailClaimRepository).claim("test@example.com", "testuser");
         verify(userRepository).save(any(User.class));
     }
 
@@ -100,4 +111,30 @@ public class AuthServiceTest {
         assertEquals("Email already exists", exception.getMessage());
         verify(userRepository, never()).save(any(User.class));
     }
+
+    @Test
+    public void testRegister_EmailClaimedConcurrently() {
+        when(userRepository.existsByUsername(anyString())).thenReturn(false);
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(emailClaimRepository.claim("test@example.com", "testuser"))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> authService.register(registerRequest));
+
+        assertEquals("Email already exists", exception.getMessage());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    public void testRegister_SaveFailsReleasesEmail() {
+        when(userRepository.existsByUsername(anyString())).thenReturn(false);
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> authService.register(registerRequest));
+
+        verify(emailClaimRepository).deleteById("test@example.com");
+    }
 }
@@ -0,0 +1,141 @@
+package com.smarttask;
+
+import com.smarttask.ai.ClassificationCache;
+import com.smarttask.ai.ClassificationDictionaryLoader;
+import com.smarttask.dto.BatchClassifyRequest;
+import com.smarttask.dto.BatchClassifyResponse;
+import com.smarttask.dto.ClassificationResult;
+import com.smarttask.entity.Task;
+import com.smarttask.service.AIService;
+import com.smarttask.service.BatchClassificationService;
+import com.smarttask.service.CategoryLearningService;
+import com.smarttask.service.CompletionTimeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchClassificationServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final String[] TITLES = {
+            "Client meeting about the project", "Gym workout", "Pay the electricity bill", "Call a friend",
+            "Study for the exam", "Urgent: fix the production outage", "Buy groceries", "Doctor appointment"
+    };
+    private static final String[] DESCRIPTIONS = {null, "", "needed by tomorrow, important", "whenever there is time"};
+
+    @Mock
+    private CategoryLearningService categoryLearningService;
+
+    @Mock
+    private CompletionTimeService completionTimeService;
+
+    private AIService aiService;
+    private BatchClassificationService service;
+
+    @BeforeEach
+    public void setUp() {
+        ClassificationDictionaryLoader loader = new ClassificationDictionaryLoader(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(loader, "location", "classpath:ai/classification-dictionary.txt");
+        loader.init();
+        aiService = new AIService(loader, categoryLearningService, new ClassificationCache(1000), completionTimeService,
+                new SimpleMeterRegistry());
+        service = new BatchClassificationService(aiService, 5000, 4);
+
+        // Some items take the learned category and a learned completion time, the rest the dictionary's
+        lenient().when(categoryLearningService.predict(eq(USER_ID), contains("friend"), any()))
+                .thenReturn(Task.TaskCategory.PERSONAL);
+        lenient().when(completionTimeService.estimate(USER_ID, Task.TaskCategory.HEALTH))
+                .thenReturn(Duration.ofHours(5));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void testClassify_BelowSplitThresholdMatchesSerial() {
+        assertMatchesSerial(items(10));
+    }
+
+    @Test
+    public void testClassify_AboveSplitThresholdMatchesSerial() {
+        assertMatchesSerial(items(1000));
+    }
+
+    @Test
+    public void testClassify_EmptyBatch() {
+        BatchClassifyResponse response = service.classify(USER_ID, List.of());
+
+        assertEquals(0, response.getCount());
+        assertTrue(response.getResults().isEmpty());
+        verifyNoInteractions(categoryLearningService, completionTimeService);
+    }
+
+    @Test
+    public void testClassify_BatchOverLimitRejected() {
+        BatchClassificationService capped = new BatchClassificationService(aiService, 5, 1);
+        try {
+            assertThrows(IllegalArgumentException.class, () -> capped.classify(USER_ID, items(6)));
+            assertEquals(0, capped.getItemCount());
+            verify(categoryLearningService, never()).predict(any(), anyString(), any());
+
+            assertEquals(5, capped.classify(USER_ID, items(5)).getCount());
+        } finally {
+            capped.shutdown();
+        }
+    }
+
+    private void assertMatchesSerial(List<BatchClassifyRequest.Item> batch) {
+        BatchClassifyResponse response = service.classify(USER_ID, batch);
+
+        assertEquals(batch.size(), response.getCount());
+        assertEquals(batch.size(), response.getResults().size());
+        for (int i = 0; i < batch.size(); i++) {
+            BatchClassifyRequest.Item item = batch.get(i);
+            ClassificationResult result = response.getResults().get(i);
+            String category = aiService.categorizeTask(USER_ID, item.getTitle(), item.getDescription());
+
+            assertEquals(category, result.getCategory(), "category of item " + i);
+            assertEquals(aiService.suggestPriority(item.getTitle(), item.getDescription(), category),
+                    result.getPriority(), "priority of item " + i);
+            // Deadlines are relative to now, so the serial one can only be a little later
+            LocalDateTime serial = LocalDateTime.parse(
+                    aiService.suggestDeadline(USER_ID, item.getTitle(), item.getDescription(), category));
+            LocalDateTime batched = LocalDateTime.parse(result.getSuggestedDeadline());
+            Duration drift = Duration.between(batched, serial);
+            assertFalse(drift.isNegative() || drift.compareTo(Duration.ofMinutes(1)) > 0,
+                    "deadline of item " + i + " drifted by " + drift);
+        }
+    }
+
+    private static List<BatchClassifyRequest.Item> items(int count) {
+        List<BatchClassifyRequest.Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BatchClassifyRequest.Item item = new BatchClassifyRequest.Item();
+            item.setTitle(TITLES[i % TITLES.length] + " #" + i);
+            item.setDescription(DESCRIPTIONS[(i / TITLES.length) % DESCRIPTIONS.length]);
+            items.add(item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,50 @@
+package com.smarttask;
+
+import com.smarttask.ai.ClassificationCache;
+import com.smarttask.ai.ClassificationDictionary;
+import com.smarttask.entity.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassificationCacheTest {
+
+    private ClassificationDictionary dictionary;
+    private ClassificationCache cache;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dictionary = ClassificationDictionary.parse(new StringReader("""
+                category FINANCE 3 invoice
+                priority URGENT 5 asap
+                """));
+        cache = new ClassificationCache(100);
+    }
+
+    @Test
+    public void testClassify_CaseOnlyDifferencesShareAnEntry() {
+        ClassificationCache.Classification first = cache.classify(dictionary, "Pay invoice ASAP", null);
+        ClassificationCache.Classification second = cache.classify(dictionary, "pay INVOICE asap", null);
+
+        assertEquals(Task.TaskCategory.FINANCE, second.category());
+        assertEquals(Task.TaskPriority.URGENT, second.priority());
+        assertSame(first, second);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testClassify_TitleDescriptionBoundaryIsPartOfTheKey() {
+        cache.classify(dictionary, "invoice", "asap");
+        cache.classify(dictionary, "invoiceasap", "");
+        cache.classify(dictionary, "invoice", null);
+        cache.classify(dictionary, "invoice", "");
+
+        assertEquals(4, cache.size());
+        assertEquals(0, cache.getHitCount());
+    }
+}
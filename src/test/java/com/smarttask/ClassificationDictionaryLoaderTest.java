@@ -0,0 +1,75 @@
+package com.smarttask;
+
+import com.smarttask.ai.ClassificationDictionaryLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ClassificationDictionaryLoaderTest {
+
+    private static final String LOCATION = "file:/etc/smarttask/dictionary.txt";
+
+    @Mock
+    private ResourceLoader resourceLoader;
+
+    @Mock
+    private Resource resource;
+
+    private ClassificationDictionaryLoader loader;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        when(resourceLoader.getResource(LOCATION)).thenReturn(resource);
+        when(resource.lastModified()).thenReturn(1000L);
+        when(resource.getInputStream()).thenAnswer(invocation -> stream("category WORK 2 meeting\n"));
+
+        loader = new ClassificationDictionaryLoader(resourceLoader);
+        ReflectionTestUtils.setField(loader, "location", LOCATION);
+        loader.init();
+    }
+
+    @Test
+    public void testReloadIfChanged_UnchangedFileNotReread() throws Exception {
+        loader.reloadIfChanged();
+
+        verify(resource, times(1)).getInputStream();
+    }
+
+    @Test
+    public void testReloadIfChanged_BadFileTriedOncePerVersion() throws Exception {
+        ClassificationDictionaryLoader.ReloadReport loaded = loader.lastReload();
+        when(resource.lastModified()).thenReturn(2000L);
+        when(resource.getInputStream()).thenAnswer(invocation -> stream("not a dictionary entry\n"));
+
+        loader.reloadIfChanged();
+        loader.reloadIfChanged();
+
+        verify(resource, times(2)).getInputStream();
+        assertSame(loaded, loader.lastReload());
+        assertEquals(1, loader.current().keywordCount());
+
+        when(resource.lastModified()).thenReturn(3000L);
+        when(resource.getInputStream()).thenAnswer(invocation -> stream("category WORK 2 meeting\ncategory HEALTH 2 gym\n"));
+
+        loader.reloadIfChanged();
+
+        verify(resource, times(3)).getInputStream();
+        assertEquals(2, loader.current().keywordCount());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,87 @@
+package com.smarttask;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.smarttask.config.CompactWireFormat;
+import com.smarttask.dto.TaskEvent;
+import com.smarttask.dto.TaskEventBatch;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.entity.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactWireFormatTest {
+
+    private final CompactWireFormat wireFormat = new CompactWireFormat();
+
+    @Test
+    public void testWrite_TimestampsAsEpochMillisAndEnumsAsOrdinals() throws Exception {
+        LocalDateTime due = LocalDateTime.of(2026, 3, 14, 9, 30);
+        TaskResponse task = TaskResponse.builder()
+                .id(7L)
+                .title("Ship release")
+                .status(Task.TaskStatus.IN_PROGRESS)
+                .priority(Task.TaskPriority.URGENT)
+                .dueDate(due)
+                .build();
+
+        JsonNode tree = wireFormat.mapper().readTree(wireFormat.write(task));
+
+        assertEquals(due.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), tree.get("dueDate").asLong());
+        assertEquals(Task.TaskStatus.IN_PROGRESS.ordinal(), tree.get("status").asInt());
+        assertEquals(Task.TaskPriority.URGENT.ordinal(), tree.get("priority").asInt());
+        assertFalse(tree.has("description"));
+    }
+
+    @Test
+    public void testRoundTrip_TaskEventBatch() throws Exception {
+        TaskEventBatch batch = batch(3);
+
+        TaskEventBatch read = wireFormat.mapper().readValue(wireFormat.write(batch), TaskEventBatch.class);
+
+        assertEquals(batch, read);
+    }
+
+    @Test
+    public void testWrite_SmallerThanJson() throws Exception {
+        ObjectMapper json = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        TaskEventBatch batch = batch(50);
+
+        int jsonBytes = json.writeValueAsBytes(batch).length;
+        int cborBytes = wireFormat.write(batch).length;
+
+        assertTrue(cborBytes < jsonBytes * 0.8, "cbor " + cborBytes + " bytes vs json " + jsonBytes);
+    }
+
+    private static TaskEventBatch batch(int size) {
+        LocalDateTime now = LocalDateTime.of(2026, 1, 5, 12, 0, 0, 123_000_000);
+        List<TaskEvent> events = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TaskResponse task = TaskResponse.builder()
+                    .id((long) i)
+                    .title("Task " + i)
+                    .description(i % 2 == 0 ? "Prepare the quarterly report for review" : null)
+                    .status(Task.TaskStatus.values()[i % Task.TaskStatus.values().length])
+                    .priority(Task.TaskPriority.values()[i % Task.TaskPriority.values().length])
+                    .category(Task.TaskCategory.values()[i % Task.TaskCategory.values().length])
+                    .dueDate(now.plusDays(i))
+                    .position(i)
+                    .userId(1L)
+                    .createdAt(now)
+                    .updatedAt(now.plusMinutes(i))
+                    .build();
+            events.add(new TaskEvent(TaskEvent.Type.UPDATED, task.getId(), task));
+        }
+        return new TaskEventBatch(events, size);
+    }
+}
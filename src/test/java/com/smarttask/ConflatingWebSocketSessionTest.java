@@ -0,0 +1,122 @@
+package com.smarttask;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttask.websocket.SessionBackpressure;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ConflatingWebSocketSessionTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final WebSocketSession delegate = mock(WebSocketSession.class);
+
+    private SessionBackpressure backpressure;
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        backpressure.shutdown();
+    }
+
+    @Test
+    public void testSend_ConflatesTaskBatchesWhileLagging() throws Exception {
+        WebSocketSession session = slowSession(1_000_000);
+
+        session.sendMessage(batch("sub-0", "{\"events\":[" + event(1, "UPDATED", 1) + "],\"changes\":1}"));
+        awaitSendStarted();
+        session.sendMessage(batch("sub-0", "{\"events\":[" + event(1, "UPDATED", 2) + "],\"changes\":1}"));
+        session.sendMessage(batch("sub-0", "{\"events\":[" + event(1, "UPDATED", 3) + "," + event(2, "CREATED", 0) + "],\"changes\":2}"));
+        release.countDown();
+
+        awaitSent(2);
+        JsonNode caughtUp = objectMapper.readTree(body(sent.get(1)));
+        assertEquals(2, caughtUp.path("events").size());
+        assertEquals(3, caughtUp.path("events").get(0).path("task").path("position").asInt());
+        assertEquals(3, caughtUp.path("changes").asInt());
+        assertEquals(1.0, meterRegistry.counter("websocket.session.conflated").count());
+    }
+
+    @Test
+    public void testSend_KeepsOtherFramesInOrder() throws Exception {
+        WebSocketSession session = slowSession(1_000_000);
+
+        session.sendMessage(new TextMessage("MESSAGE\ndestination:/topic/a\n\nfirst\0"));
+        awaitSendStarted();
+        session.sendMessage(new TextMessage("MESSAGE\ndestination:/topic/a\n\nsecond\0"));
+        session.sendMessage(new TextMessage("MESSAGE\ndestination:/topic/a\n\nthird\0"));
+        release.countDown();
+
+        awaitSent(3);
+        assertTrue(sent.get(1).contains("second"));
+        assertTrue(sent.get(2).contains("third"));
+    }
+
+    @Test
+    public void testSend_EvictsWhenBufferLimitExceeded() throws Exception {
+        WebSocketSession session = slowSession(64);
+
+        session.sendMessage(new TextMessage("MESSAGE\ndestination:/topic/a\n\nfirst\0"));
+        awaitSendStarted();
+        for (int i = 0; i < 5; i++) {
+            session.sendMessage(new TextMessage("MESSAGE\ndestination:/topic/a\n\nbacklog " + i + "\0"));
+        }
+
+        verify(delegate).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1.0, meterRegistry.counter("websocket.session.evicted").count());
+    }
+
+    private WebSocketSession slowSession(long maxQueuedBytes) throws Exception {
+        backpressure = new SessionBackpressure(objectMapper, meterRegistry, maxQueuedBytes, 60_000, 1_000);
+        when(delegate.getId()).thenReturn("session-1");
+        doAnswer(invocation -> {
+            sent.add(((WebSocketMessage<?>) invocation.getArgument(0)).getPayload().toString());
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(delegate).sendMessage(any());
+        return backpressure.decorate(delegate);
+    }
+
+    private void awaitSendStarted() throws InterruptedException {
+        awaitSent(1);
+    }
+
+    private void awaitSent(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (sent.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, sent.size());
+    }
+
+    private static TextMessage batch(String subscription, String body) {
+        return new TextMessage("MESSAGE\ndestination:/user/queue/tasks/batch\ncontent-type:application/json\n"
+                + "subscription:" + subscription + "\nmessage-id:" + System.nanoTime() + "\n"
+                + "content-length:" + body.length() + "\n\n" + body + "\0");
+    }
+
+    private static String event(long taskId, String type, int position) {
+        return "{\"type\":\"" + type + "\",\"taskId\":" + taskId + ",\"task\":{\"id\":" + taskId + ",\"position\":" + position + "}}";
+    }
+
+    private static String body(String frame) {
+        return frame.substring(frame.indexOf("\n\n") + 2, frame.lastIndexOf('\0'));
+    }
+}
@@ -0,0 +1,68 @@
+package com.smarttask;
+
+import com.smarttask.sharding.ConsistentHashRing;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsistentHashRingTest {
+
+    private static final int USERS = 20_000;
+
+    @Test
+    public void testShardFor_SpreadsUsersEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2", "shard-3"), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < USERS; i++) {
+            counts.merge(ring.shardFor("user" + i), 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(Math.abs(count - USERS / 4) < USERS / 4 * 0.2, "Unbalanced shard with " + count + " users");
+        }
+    }
+
+    @Test
+    public void testAddShard_MovesOnlyToNewShard() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2", "shard-3"), 128);
+
+        int moved = 0;
+        for (int i = 0; i < USERS; i++) {
+            String user = "user" + i;
+            String owner = after.shardFor(user);
+            if (!owner.equals(before.shardFor(user))) {
+                assertEquals("shard-3", owner);
+                moved++;
+            }
+        }
+
+        double share = moved / (double) USERS;
+        assertTrue(share > 0.18 && share < 0.32, "Expected about a quarter of users to move, got " + share);
+    }
+
+    @Test
+    public void testShardFor_IndependentOfShardOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2"), 64);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("shard-2", "shard-0", "shard-1"), 64);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(ring.shardFor("user" + i), reordered.shardFor("user" + i));
+        }
+    }
+
+    @Test
+    public void testSingleShard_OwnsEverything() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-0"), 1);
+
+        assertEquals("shard-0", ring.shardFor("alice"));
+        assertEquals("shard-0", ring.shardFor(""));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 128));
+    }
+}
@@ -0,0 +1,42 @@
+package com.smarttask;
+
+import com.smarttask.exception.ConflictException;
+import com.smarttask.exception.ForbiddenException;
+import com.smarttask.exception.NotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DomainExceptionTest {
+
+    @Test
+    public void testDomainException_NoStackTrace() {
+        assertEquals(0, NotFoundException.TASK.getStackTrace().length);
+        assertEquals(0, new ForbiddenException("Not yours").getStackTrace().length);
+    }
+
+    @Test
+    public void testDomainException_StatusAndBody() {
+        assertEquals(HttpStatus.NOT_FOUND, NotFoundException.TASK.getStatus());
+        assertEquals(HttpStatus.FORBIDDEN, ForbiddenException.TASK_UPDATE.getStatus());
+        assertEquals(HttpStatus.CONFLICT, ConflictException.USERNAME_TAKEN.getStatus());
+
+        assertEquals(409, ConflictException.EMAIL_TAKEN.getBody().get("status"));
+        assertEquals("Email already exists", ConflictException.EMAIL_TAKEN.getBody().get("message"));
+    }
+
+    @Test
+    public void testDomainException_BodyIsImmutable() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> NotFoundException.TASK.getBody().put("message", "changed"));
+    }
+
+    @Test
+    public void testSharedInstance_CannotBeModified() {
+        NotFoundException.TASK.addSuppressed(new IllegalStateException());
+
+        assertEquals(0, NotFoundException.TASK.getSuppressed().length);
+        assertThrows(IllegalStateException.class, () -> NotFoundException.TASK.initCause(new IllegalStateException()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.smarttask;
+
+import com.smarttask.ai.DurationSketch;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DurationSketchTest {
+
+    @Test
+    public void testQuantile_EmptySketch() {
+        assertEquals(-1, new DurationSketch().quantile(0.5));
+    }
+
+    @Test
+    public void testQuantile_WithinRelativeAccuracy() {
+        DurationSketch sketch = new DurationSketch();
+        for (int minutes = 1; minutes <= 10_000; minutes++) {
+            sketch.add(minutes);
+        }
+
+        assertEquals(10_000, sketch.count());
+        assertWithinAccuracy(5_000, sketch.quantile(0.5));
+        assertWithinAccuracy(7_500, sketch.quantile(0.75));
+        assertWithinAccuracy(9_900, sketch.quantile(0.99));
+    }
+
+    @Test
+    public void testQuantile_IgnoresOrderOfValues() {
+        DurationSketch ascending = new DurationSketch();
+        DurationSketch descending = new DurationSketch();
+        for (int i = 0; i < 500; i++) {
+            ascending.add(60 + i * 10L);
+            descending.add(60 + (499 - i) * 10L);
+        }
+
+        assertEquals(ascending.quantile(0.75), descending.quantile(0.75));
+    }
+
+    @Test
+    public void testSnapshot_RoundTripIsCompact() throws IOException {
+        DurationSketch sketch = new DurationSketch();
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add(60 + i % 2_880);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+        DurationSketch restored = DurationSketch.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertTrue(bytes.size() < 300, "snapshot was " + bytes.size() + " bytes");
+        assertEquals(sketch.count(), restored.count());
+        assertEquals(sketch.quantile(0.5), restored.quantile(0.5));
+    }
+
+    private static void assertWithinAccuracy(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected * DurationSketch.RELATIVE_ACCURACY + 1,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,80 @@
+package com.smarttask;
+
+import com.smarttask.ai.KeywordMatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeywordMatcherTest {
+
+    private static final int WORK = 0;
+    private static final int HEALTH = 1;
+    private static final int LEARNING = 2;
+
+    private KeywordMatcher matcher;
+
+    @BeforeEach
+    public void setUp() {
+        matcher = KeywordMatcher.builder(3)
+                .add("meeting", WORK)
+                .add("report", WORK)
+                .add("gym", HEALTH)
+                .add("doctor", HEALTH)
+                .add("book", LEARNING)
+                .add("he", LEARNING)
+                .add("she", HEALTH)
+                .build();
+    }
+
+    @Test
+    public void testBestLabel_CaseInsensitive() {
+        assertEquals(WORK, matcher.bestLabel("Team MEETING", null));
+        assertEquals(HEALTH, matcher.bestLabel("Call", "a Doctor"));
+        assertEquals(-1, matcher.bestLabel("Nothing to see", "at all"));
+    }
+
+    @Test
+    public void testBestLabel_MostHitsWins() {
+        assertEquals(WORK, matcher.bestLabel("gym", "meeting report"));
+    }
+
+    @Test
+    public void testBestLabel_TieGoesToEarliestHit() {
+        assertEquals(HEALTH, matcher.bestLabel("gym before meeting", null));
+        assertEquals(WORK, matcher.bestLabel("meeting before gym", null));
+    }
+
+    @Test
+    public void testBestLabel_WeightsOutrankHitCount() {
+        KeywordMatcher weighted = KeywordMatcher.builder(3)
+                .add("meeting", WORK, 1)
+                .add("report", WORK, 1)
+                .add("doctor", HEALTH, 3)
+                .build();
+
+        assertEquals(HEALTH, weighted.bestLabel("meeting report", "doctor"));
+    }
+
+    @Test
+    public void testScan_OverlappingKeywords() {
+        int[] scores = new int[3];
+        int[] firstHit = new int[3];
+        Arrays.fill(firstHit, Integer.MAX_VALUE);
+
+        matcher.scan("ushers", null, scores, firstHit);
+
+        assertEquals(1, scores[HEALTH]);
+        assertEquals(1, scores[LEARNING]);
+        assertEquals(3, firstHit[HEALTH]);
+        assertEquals(3, firstHit[LEARNING]);
+        assertEquals(Integer.MAX_VALUE, firstHit[WORK]);
+    }
+
+    @Test
+    public void testScan_DoesNotMatchAcrossTitleAndDescription() {
+        assertEquals(-1, matcher.bestLabel("go to a g", "ym"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.smarttask;
+
+import com.smarttask.loadtest.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentile_EmptyHistogram() {
+        assertEquals(0, new LatencyHistogram().percentile(0.99));
+    }
+
+    @Test
+    public void testPercentile_ExactBelowLinearRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(50, histogram.percentile(0.50));
+        assertEquals(99, histogram.percentile(0.99));
+        assertEquals(100, histogram.percentile(1.0));
+    }
+
+    @Test
+    public void testPercentile_WithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(1_000_000, histogram.count());
+        assertWithinError(500_000, histogram.percentile(0.50));
+        assertWithinError(990_000, histogram.percentile(0.99));
+        assertWithinError(999_000, histogram.percentile(0.999));
+        assertEquals(1_000_000, histogram.max());
+    }
+
+    @Test
+    public void testPercentile_NeverAboveMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_001);
+
+        assertEquals(1_000_001, histogram.percentile(0.5));
+    }
+
+    private static void assertWithinError(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.016,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
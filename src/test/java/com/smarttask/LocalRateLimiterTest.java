@@ -0,0 +1,83 @@
+package com.smarttask;
+
+import com.smarttask.ratelimit.LocalRateLimiter;
+import com.smarttask.ratelimit.RateLimit;
+import com.smarttask.ratelimit.RateLimitDecision;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final RateLimit limit = new RateLimit(3, 1);
+
+    @Test
+    public void testTryAcquire_BurstUpToCapacity() {
+        LocalRateLimiter limiter = new LocalRateLimiter(100, Duration.ofMinutes(1), clock::get);
+
+        assertEquals(2, limiter.tryAcquire("a", limit).remaining());
+        assertEquals(1, limiter.tryAcquire("a", limit).remaining());
+        assertEquals(0, limiter.tryAcquire("a", limit).remaining());
+
+        RateLimitDecision rejected = limiter.tryAcquire("a", limit);
+        assertFalse(rejected.allowed());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), rejected.retryAfterNanos());
+        assertEquals(TimeUnit.SECONDS.toNanos(3), rejected.resetNanos());
+    }
+
+    @Test
+    public void testTryAcquire_RefillsOverTime() {
+        LocalRateLimiter limiter = new LocalRateLimiter(100, Duration.ofMinutes(1), clock::get);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a", limit);
+        }
+        assertFalse(limiter.tryAcquire("a", limit).allowed());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertTrue(limiter.tryAcquire("a", limit).allowed());
+        assertFalse(limiter.tryAcquire("a", limit).allowed());
+    }
+
+    @Test
+    public void testTryAcquire_KeysAreIndependent() {
+        LocalRateLimiter limiter = new LocalRateLimiter(100, Duration.ofMinutes(1), clock::get);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a", limit);
+        }
+
+        assertFalse(limiter.tryAcquire("a", limit).allowed());
+        assertTrue(limiter.tryAcquire("b", limit).allowed());
+    }
+
+    @Test
+    public void testEvictIdle_DropsOnlyRefilledBuckets() {
+        LocalRateLimiter limiter = new LocalRateLimiter(100, Duration.ofMinutes(1), clock::get);
+        limiter.tryAcquire("a", limit);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limiter.tryAcquire("b", limit);
+
+        limiter.evictIdle();
+
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    public void testTryAcquire_SharesOverflowBucketWhenFull() {
+        LocalRateLimiter limiter = new LocalRateLimiter(2, Duration.ofMinutes(1), clock::get);
+        limiter.tryAcquire("a", limit);
+        limiter.tryAcquire("b", limit);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("overflow-" + i, limit).allowed());
+        }
+
+        assertFalse(limiter.tryAcquire("overflow-3", limit).allowed());
+        assertEquals(2, limiter.size());
+    }
+}
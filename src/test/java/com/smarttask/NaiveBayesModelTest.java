@@ -0,0 +1,74 @@
+package com.smarttask;
+
+import com.smarttask.ai.NaiveBayesModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NaiveBayesModelTest {
+
+    private static final int PERSONAL = 0;
+    private static final int FINANCE = 1;
+
+    private NaiveBayesModel model;
+
+    @BeforeEach
+    public void setUp() {
+        model = new NaiveBayesModel(3);
+        for (int i = 0; i < 50; i++) {
+            model.train("Pay rent " + i, "Bank transfer to landlord", FINANCE);
+            model.train("Call mom " + i, "Family dinner on Sunday", PERSONAL);
+        }
+    }
+
+    @Test
+    public void testPredict_EmptyModel() {
+        assertNull(new NaiveBayesModel(3).predict("anything", null));
+    }
+
+    @Test
+    public void testPredict_LearnsFromExamples() {
+        NaiveBayesModel.Prediction finance = model.predict("RENT", "landlord");
+        NaiveBayesModel.Prediction personal = model.predict("Dinner with mom", null);
+
+        assertEquals(FINANCE, finance.label());
+        assertTrue(finance.confidence() > 0.9);
+        assertEquals(PERSONAL, personal.label());
+        assertEquals(100, model.documentCount());
+    }
+
+    @Test
+    public void testPredict_SingleLabelModelNotCertain() {
+        NaiveBayesModel single = new NaiveBayesModel(3);
+        for (int i = 0; i < 30; i++) {
+            single.train("Pay rent " + i, "Bank transfer to landlord", FINANCE);
+        }
+
+        NaiveBayesModel.Prediction unrelated = single.predict("Book dentist appointment", null);
+        NaiveBayesModel.Prediction related = single.predict("Pay rent", "landlord");
+
+        assertEquals(FINANCE, unrelated.label());
+        assertTrue(unrelated.confidence() < 0.6);
+        assertTrue(related.confidence() < 1.0);
+        assertTrue(related.confidence() > unrelated.confidence());
+    }
+
+    @Test
+    public void testSnapshot_RoundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        model.writeTo(new DataOutputStream(bytes));
+
+        NaiveBayesModel restored = NaiveBayesModel.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(model.documentCount(), restored.documentCount());
+        assertEquals(model.predict("rent transfer", null), restored.predict("rent transfer", null));
+    }
+}
@@ -0,0 +1,43 @@
+package com.smarttask;
+
+import com.smarttask.ratelimit.RateLimit;
+import com.smarttask.ratelimit.RateLimitPolicy;
+import com.smarttask.ratelimit.RateLimitPolicy.EndpointClass;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitPolicyTest {
+
+    private final RateLimitPolicy policy = new RateLimitPolicy(Map.of(
+            EndpointClass.AUTH, new RateLimit(5, 1),
+            EndpointClass.AI, new RateLimit(10, 1),
+            EndpointClass.WRITE, new RateLimit(60, 10),
+            EndpointClass.READ, new RateLimit(120, 20)));
+
+    @Test
+    public void testClassify_CollectionAiEndpoints() {
+        assertEquals(EndpointClass.AI, classify("POST", "/api/tasks/ai/classify"));
+        assertEquals(EndpointClass.AI, classify("GET", "/api/tasks/ai/trends"));
+    }
+
+    @Test
+    public void testClassify_PerTaskAiEndpoint() {
+        assertEquals(EndpointClass.AI, classify("POST", "/api/tasks/42/ai/suggestion"));
+    }
+
+    @Test
+    public void testClassify_OtherEndpoints() {
+        assertEquals(EndpointClass.AUTH, classify("POST", "/api/auth/login"));
+        assertEquals(EndpointClass.READ, classify("GET", "/api/tasks/42"));
+        assertEquals(EndpointClass.WRITE, classify("PATCH", "/api/tasks/42/status"));
+        assertEquals(EndpointClass.WRITE, classify("POST", "/api/tasks/airfare"));
+    }
+
+    private EndpointClass classify(String method, String path) {
+        return policy.classify(new MockHttpServletRequest(method, path));
+    }
+}
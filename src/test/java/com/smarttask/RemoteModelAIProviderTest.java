@@ -0,0 +1,156 @@
+package com.smarttask;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.smarttask.ai.AIInsight;
+import com.smarttask.ai.AIPrompt;
+import com.smarttask.ai.AIProvider;
+import com.smarttask.ai.CircuitBreaker;
+import com.smarttask.ai.RemoteModelAIProvider;
+import com.smarttask.entity.Task;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RemoteModelAIProviderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AIProvider fallback = prompt -> CompletableFuture.completedFuture(
+            new AIInsight(Task.TaskCategory.GENERAL, Task.TaskPriority.MEDIUM, null, "rules", "rules"));
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private volatile int status = 200;
+    private volatile long delayMillis;
+    private volatile String rawBody;
+    private RemoteModelAIProvider provider;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/batch", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (provider != null) {
+            provider.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void testAnalyze_BatchesConcurrentPrompts() {
+        provider = newProvider(1_000, 5);
+
+        List<CompletableFuture<AIInsight>> futures = List.of(
+                provider.analyze(prompt("Prepare slides")),
+                provider.analyze(prompt("Book dentist")),
+                provider.analyze(prompt("Pay rent")));
+
+        for (CompletableFuture<AIInsight> future : futures) {
+            assertEquals(RemoteModelAIProvider.SOURCE, future.join().source());
+        }
+        assertEquals("remote: Book dentist", futures.get(1).join().suggestion());
+        assertEquals(List.of(3), batchSizes);
+    }
+
+    @Test
+    public void testAnalyze_CoalescesDuplicatePrompts() {
+        provider = newProvider(1_000, 5);
+
+        CompletableFuture<AIInsight> first = provider.analyze(prompt("Pay rent"));
+        CompletableFuture<AIInsight> second = provider.analyze(prompt("Pay rent"));
+
+        assertEquals(first.join(), second.join());
+        assertEquals(List.of(1), batchSizes);
+    }
+
+    @Test
+    public void testAnalyze_FallsBackAfterDeadline() {
+        delayMillis = 1_000;
+        provider = newProvider(100, 5);
+
+        AIInsight insight = provider.analyze(prompt("Slow backend")).join();
+
+        assertEquals("rules", insight.source());
+    }
+
+    @Test
+    public void testAnalyze_CircuitOpensOnFailures() {
+        status = 500;
+        provider = newProvider(1_000, 2);
+
+        assertEquals("rules", provider.analyze(prompt("First")).join().source());
+        assertEquals("rules", provider.analyze(prompt("Second")).join().source());
+        assertEquals(CircuitBreaker.State.OPEN, provider.circuitState());
+
+        assertEquals("rules", provider.analyze(prompt("Third")).join().source());
+        assertEquals(2, batchSizes.size());
+    }
+
+    @Test
+    public void testAnalyze_UnparseableBodyCountsAsFailure() {
+        rawBody = "<html>gateway error</html>";
+        provider = newProvider(1_000, 2);
+
+        assertEquals("rules", provider.analyze(prompt("First")).join().source());
+        assertEquals("rules", provider.analyze(prompt("Second")).join().source());
+
+        assertEquals(CircuitBreaker.State.OPEN, provider.circuitState());
+    }
+
+    private RemoteModelAIProvider newProvider(long timeoutMillis, int failureThreshold) {
+        URI endpoint = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/v1/batch");
+        return new RemoteModelAIProvider(fallback, new CircuitBreaker(failureThreshold, 60_000), objectMapper,
+                endpoint, "test-key", "stub", 16, 20, timeoutMillis);
+    }
+
+    private static AIPrompt prompt(String title) {
+        return new AIPrompt(title, null, null, null);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        batchSizes.add(request.path("items").size());
+
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode items = response.putArray("items");
+        for (JsonNode item : request.path("items")) {
+            items.addObject()
+                    .put("id", item.path("id").asInt())
+                    .put("category", "WORK")
+                    .put("priority", "HIGH")
+                    .put("suggestion", "remote: " + item.path("title").asText());
+        }
+
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = rawBody != null ? rawBody.getBytes(StandardCharsets.UTF_8) : objectMapper.writeValueAsBytes(response);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.smarttask;
+
+import com.smarttask.timing.RequestTiming;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestTimingTest {
+
+    @AfterEach
+    public void tearDown() {
+        RequestTiming.end();
+    }
+
+    @Test
+    public void testMarks_IgnoredOutsideRequest() {
+        long start = RequestTiming.start();
+        RequestTiming.stop(RequestTiming.Phase.DB, start);
+        RequestTiming.record(RequestTiming.Phase.DB, 1_000_000);
+
+        RequestTiming timing = RequestTiming.begin(10);
+        assertEquals(0, timing.count(RequestTiming.Phase.DB));
+    }
+
+    @Test
+    public void testRecord_SumsPerPhase() {
+        RequestTiming timing = RequestTiming.begin(10);
+        RequestTiming.record(RequestTiming.Phase.DB, 1_500_000);
+        RequestTiming.record(RequestTiming.Phase.DB, 500_000);
+        RequestTiming.record(RequestTiming.Phase.AUTH, 250_000);
+
+        assertEquals(2_000_000, timing.nanos(RequestTiming.Phase.DB));
+        assertEquals(2, timing.count(RequestTiming.Phase.DB));
+        assertEquals("auth;dur=0.250, db;dur=2.000", timing.header(-1));
+        assertEquals("auth;dur=0.250, db;dur=2.000, total;dur=3.005", timing.header(3_005_000));
+        assertEquals("total_ms=3.005 auth_ms=0.250 db_ms=2.000 db_count=2", timing.breakdown(3_005_000));
+    }
+
+    @Test
+    public void testStart_CappedAfterMaxMarks() {
+        RequestTiming timing = RequestTiming.begin(2);
+        for (int i = 0; i < 5; i++) {
+            RequestTiming.stop(RequestTiming.Phase.MAP, RequestTiming.start());
+        }
+
+        assertEquals(5, timing.count(RequestTiming.Phase.MAP));
+        assertTrue(timing.isCapped());
+        assertTrue(timing.breakdown(0).endsWith("map_count=5 capped=true"));
+    }
+
+    @Test
+    public void testWrite_AddedOnceWhenEnded() {
+        RequestTiming timing = RequestTiming.begin(10);
+        timing.beginWrite();
+        timing.endWrite();
+        timing.endWrite();
+
+        assertEquals(1, timing.count(RequestTiming.Phase.WRITE));
+    }
+}
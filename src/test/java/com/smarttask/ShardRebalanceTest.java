@@ -0,0 +1,209 @@
+package com.smarttask;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttask.service.ProductivityRollupService;
+import com.smarttask.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application on two in-memory H2 shards, registers users with tasks, then restarts
+ * it with a third shard and sharding.rebalance-from=2 and follows the move while it runs.
+ */
+public class ShardRebalanceTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String PASSWORD = "rebalance-password";
+    private static final int USERS = 30;
+    private static final String[][] USER_TABLES = {
+            {"users", "id"}, {"tasks", "user_id"}, {"task_changes", "user_id"}, {"productivity_rollups", "user_id"}
+    };
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final String prefix = "jdbc:h2:mem:rebalance" + System.nanoTime() + "-";
+    private final List<String> urls = List.of(prefix + "0;DB_CLOSE_DELAY=-1", prefix + "1;DB_CLOSE_DELAY=-1",
+            prefix + "2;DB_CLOSE_DELAY=-1");
+
+    @Test
+    public void testRebalance_MovesUsersWithTheirRows() throws Exception {
+        String twoShards = String.join(",", urls.subList(0, 2));
+        ShardRouter before = new ShardRouter(true, twoShards, 0, 128);
+        ShardRouter after = new ShardRouter(true, String.join(",", urls), 0, 128);
+
+        try (ConfigurableApplicationContext context = start(twoShards)) {
+            String baseUrl = baseUrl(context);
+            for (int i = 0; i < USERS; i++) {
+                String token = register(baseUrl, "user" + i);
+                post(baseUrl, "/api/tasks", token, "{\"title\":\"Task of user" + i + "\"}");
+            }
+            context.getBean(ProductivityRollupService.class).flush();
+        }
+
+        Map<String, Long> ids = new LinkedHashMap<>();
+        Map<String, Map<String, List<Long>>> rows = new HashMap<>();
+        List<String> movers = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String username = "user" + i;
+            String source = before.ownerOf(username);
+            long id = userId(source, username);
+            ids.put(username, id);
+            rows.put(username, rowIds(source, id));
+            rows.get(username).forEach((table, found) -> assertFalse(found.isEmpty(), username + " has no " + table));
+            if (!after.ownerOf(username).equals(source)) {
+                movers.add(username);
+            }
+        }
+        assertFalse(movers.isEmpty());
+
+        try (ConfigurableApplicationContext context = start(String.join(",", urls),
+                "sharding.rebalance-from=2", "sharding.rebalance.batch-size=1", "sharding.rebalance.pause-ms=100")) {
+            ShardRouter router = context.getBean(ShardRouter.class);
+            boolean sawWaiting = false;
+            long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+            while (router.isRebalancing()) {
+                assertTrue(System.nanoTime() < deadline, "Rebalance did not finish");
+                for (String username : movers) {
+                    String owner = after.ownerOf(username);
+                    // Read before routing: a copy committed by now must already be routed to
+                    boolean copied = hasUser(owner, ids.get(username));
+                    String routed = router.shardFor(username);
+                    if (copied) {
+                        assertEquals(owner, routed, username + " copied but still routed to the old shard");
+                    } else if (routed.equals(owner)) {
+                        assertTrue(hasUser(owner, ids.get(username)), username + " routed before its copy committed");
+                    } else {
+                        assertEquals(before.ownerOf(username), routed);
+                        sawWaiting = true;
+                    }
+                }
+                Thread.sleep(10);
+            }
+            assertTrue(sawWaiting, "No user was seen before its move");
+
+            for (String username : ids.keySet()) {
+                String owner = after.ownerOf(username);
+                String source = before.ownerOf(username);
+                long id = ids.get(username);
+                assertEquals(owner, router.shardFor(username));
+                assertEquals(rows.get(username), rowIds(owner, id), username + " rows on " + owner);
+                if (!owner.equals(source)) {
+                    rowIds(source, id).forEach((table, left) ->
+                            assertTrue(left.isEmpty(), username + " left " + table + " rows on " + source));
+                }
+            }
+
+            String moved = movers.get(0);
+            String token = login(baseUrl(context), moved);
+            HttpResponse<String> tasks = client.send(HttpRequest.newBuilder(URI.create(baseUrl(context) + "/api/tasks"))
+                    .header("Authorization", "Bearer " + token)
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, tasks.statusCode());
+            assertTrue(tasks.body().contains("Task of " + moved));
+        }
+    }
+
+    // Command-line arguments, since they take precedence over the test application.yml, which
+    // drops the schema on close and would empty the shards between the two runs
+    private static ConfigurableApplicationContext start(String shardUrls, String... extra) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--management.server.port=-1",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--sharding.enabled=true",
+                "--sharding.urls=" + shardUrls,
+                "--rate-limit.enabled=false",
+                "--ai.productivity.flush-interval-ms=3600000",
+                "--logging.level.com.smarttask=WARN",
+                "--logging.level.org.springframework.security=WARN"));
+        for (String property : extra) {
+            arguments.add("--" + property);
+        }
+        return new SpringApplicationBuilder(SmartTaskAIApplication.class).run(arguments.toArray(String[]::new));
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    private String register(String baseUrl, String username) throws Exception {
+        HttpResponse<String> response = post(baseUrl, "/api/auth/register", null,
+                "{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\",\"password\":\"" + PASSWORD + "\"}");
+        return JSON.readTree(response.body()).path("token").asText();
+    }
+
+    private String login(String baseUrl, String username) throws Exception {
+        HttpResponse<String> response = post(baseUrl, "/api/auth/login", null,
+                "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}");
+        return JSON.readTree(response.body()).path("token").asText();
+    }
+
+    private HttpResponse<String> post(String baseUrl, String path, String token, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), path + ": " + response.body());
+        return response;
+    }
+
+    private Connection connect(String shard) throws SQLException {
+        return DriverManager.getConnection(urls.get(Integer.parseInt(shard.substring("shard-".length()))), "sa", "");
+    }
+
+    private long userId(String shard, String username) throws SQLException {
+        try (Connection connection = connect(shard);
+             PreparedStatement select = connection.prepareStatement("SELECT id FROM users WHERE username = ?")) {
+            select.setString(1, username);
+            try (ResultSet rows = select.executeQuery()) {
+                assertTrue(rows.next(), username + " is not on " + shard);
+                return rows.getLong(1);
+            }
+        }
+    }
+
+    private boolean hasUser(String shard, long userId) throws SQLException {
+        return !rowIds(shard, userId).get("users").isEmpty();
+    }
+
+    private Map<String, List<Long>> rowIds(String shard, long userId) throws SQLException {
+        Map<String, List<Long>> found = new LinkedHashMap<>();
+        try (Connection connection = connect(shard)) {
+            for (String[] table : USER_TABLES) {
+                List<Long> ids = new ArrayList<>();
+                try (PreparedStatement select = connection.prepareStatement(
+                        "SELECT id FROM " + table[0] + " WHERE " + table[1] + " = ? ORDER BY id")) {
+                    select.setLong(1, userId);
+                    try (ResultSet rows = select.executeQuery()) {
+                        while (rows.next()) {
+                            ids.add(rows.getLong(1));
+                        }
+                    }
+                }
+                found.put(table[0], ids);
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,116 @@
+package com.smarttask;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Time to first request of the plain fat jar versus fast-start mode (AOT-processed context,
+ * class data sharing archive and the faststart profile). Every run starts a fresh JVM and
+ * polls POST /api/auth/login with an unknown user until the server answers, which needs the
+ * web server, the security chain and a database lookup to be ready.
+ *
+ * Both modes share an H2 file database under target/startup-benchmark. The plain runs go
+ * first and create the schema that fast-start mode then validates. Prepare both variants with
+ * the same JDK that runs the benchmark:
+ *
+ *   mvn -P faststart clean package -DskipTests
+ *   cd target && java -Djarmode=tools -jar smarttask-ai-backend-1.0.0.jar extract --destination extracted
+ *   cd extracted && java -XX:ArchiveClassesAtExit=application.jsa -Dspring.aot.enabled=true \
+ *       -Dspring.context.exit=onRefresh -Dspring.profiles.active=faststart \
+ *       -Dspring.jpa.hibernate.ddl-auto=create -jar smarttask-ai-backend-1.0.0.jar
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.smarttask.StartupBenchmark
+ * Optional argument: runs per mode (default 5).
+ */
+public class StartupBenchmark {
+
+    private static final String JAR = "smarttask-ai-backend-1.0.0.jar";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Path target = Path.of("target").toAbsolutePath();
+        Path work = Files.createDirectories(target.resolve("startup-benchmark"));
+        List<String> appArguments = List.of(
+                "--spring.datasource.url=jdbc:h2:file:" + work.resolve("db"),
+                "--rate-limit.enabled=false");
+
+        Mode plain = new Mode("plain", target, List.of("-jar", JAR), appArguments);
+        Mode fastStart = new Mode("faststart", target.resolve("extracted"), List.of(
+                "-XX:SharedArchiveFile=application.jsa",
+                "-Dspring.aot.enabled=true",
+                "-Dspring.profiles.active=faststart",
+                "-jar", JAR), appArguments);
+        if (!Files.exists(fastStart.directory().resolve("application.jsa"))) {
+            throw new IllegalStateException("No CDS archive in " + fastStart.directory() + ", see the StartupBenchmark comment");
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        for (Mode mode : List.of(plain, fastStart)) {
+            long[] times = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                times[i] = timeToFirstRequest(client, mode, work.resolve(mode.name() + ".log"));
+            }
+            Arrays.sort(times);
+            System.out.printf("%-10s runs %d  min %6.0f ms  median %6.0f ms  max %6.0f ms%n", mode.name(), runs,
+                    times[0] / 1e6, times[runs / 2] / 1e6, times[runs - 1] / 1e6);
+        }
+    }
+
+    private static long timeToFirstRequest(HttpClient client, Mode mode, Path log) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(mode.jvmArguments());
+        command.add("--server.port=" + port);
+        command.addAll(mode.appArguments());
+
+        HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"startup-probe\",\"password\":\"startup-probe\"}"))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(mode.directory().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode.name() + " exited with status " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    client.send(login, HttpResponse.BodyHandlers.discarding());
+                    return System.nanoTime() - start;
+                } catch (IOException notListeningYet) {
+                    Thread.sleep(10);
+                }
+            }
+            throw new IllegalStateException(mode.name() + " did not answer within " + STARTUP_TIMEOUT + ", see " + log);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Mode(String name, Path directory, List<String> jvmArguments, List<String> appArguments) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.smarttask;
+
+import com.smarttask.dto.TaskEvent;
+import com.smarttask.dto.TaskEventBatch;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.event.TaskChangedEvent;
+import com.smarttask.service.TaskEventDispatcher;
+import com.smarttask.service.WebSocketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskEventDispatcherTest {
+
+    private static final Long USER_ID = 1L;
+
+    private final BlockingQueue<TaskEventBatch> frames = new LinkedBlockingQueue<>();
+    private final WebSocketService webSocketService = new WebSocketService(null, null) {
+        @Override
+        public void sendTaskEvents(Long userId, TaskEventBatch batch) {
+            frames.add(batch);
+        }
+    };
+    private final TaskEventDispatcher dispatcher = new TaskEventDispatcher(webSocketService, 50, 500);
+
+    @AfterEach
+    public void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    public void testDispatch_CoalescesBurstIntoOneFrame() throws InterruptedException {
+        for (long id = 1; id <= 100; id++) {
+            dispatcher.onTaskChanged(TaskChangedEvent.updated(task(id, 0), task(id, 1)));
+        }
+
+        TaskEventBatch batch = frames.poll(1, TimeUnit.SECONDS);
+
+        assertNotNull(batch);
+        assertEquals(100, batch.getEvents().size());
+        assertEquals(100, batch.getChanges());
+        assertNull(frames.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testDispatch_KeepsLatestStatePerTask() throws InterruptedException {
+        dispatcher.onTaskChanged(TaskChangedEvent.created(task(1L, 0)));
+        dispatcher.onTaskChanged(TaskChangedEvent.updated(task(1L, 0), task(1L, 5)));
+        dispatcher.onTaskChanged(TaskChangedEvent.updated(task(2L, 0), task(2L, 1)));
+        dispatcher.onTaskChanged(TaskChangedEvent.deleted(task(2L, 1)));
+        dispatcher.onTaskChanged(TaskChangedEvent.created(task(3L, 0)));
+        dispatcher.onTaskChanged(TaskChangedEvent.deleted(task(3L, 0)));
+
+        List<TaskEvent> events = frames.poll(1, TimeUnit.SECONDS).getEvents();
+
+        assertEquals(2, events.size());
+        assertEquals(TaskEvent.Type.CREATED, events.get(0).getType());
+        assertEquals(Integer.valueOf(5), events.get(0).getTask().getPosition());
+        assertEquals(TaskEvent.Type.DELETED, events.get(1).getType());
+        assertEquals(Long.valueOf(2), events.get(1).getTaskId());
+    }
+
+    @Test
+    public void testDispatch_FlushesFullBatchEarly() throws InterruptedException {
+        TaskEventDispatcher small = new TaskEventDispatcher(webSocketService, 60_000, 10);
+        try {
+            for (long id = 1; id <= 10; id++) {
+                small.onTaskChanged(TaskChangedEvent.created(task(id, 0)));
+            }
+
+            assertEquals(10, frames.poll(1, TimeUnit.SECONDS).getEvents().size());
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    private static TaskResponse task(Long id, int position) {
+        return TaskResponse.builder().id(id).userId(USER_ID).position(position).build();
+    }
+}
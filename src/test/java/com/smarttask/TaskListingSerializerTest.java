@@ -0,0 +1,107 @@
+package com.smarttask;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.smarttask.config.CompactWireFormat;
+import com.smarttask.dto.IsoDateTimeEncoder;
+import com.smarttask.dto.TaskListing;
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.entity.Task;
+import com.smarttask.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskListingSerializerTest {
+
+    private final ObjectMapper json = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    public void testList_SameJsonAsResponses() throws Exception {
+        List<Task> tasks = tasks(25);
+
+        assertEquals(json.writeValueAsString(responses(tasks)), json.writeValueAsString(TaskListing.of(tasks)));
+    }
+
+    @Test
+    public void testPage_SameJsonAsResponsePage() throws Exception {
+        List<Task> tasks = tasks(10);
+        PageRequest pageable = PageRequest.of(2, 10, Sort.by("createdAt").descending());
+        Page<Task> page = new PageImpl<>(tasks, pageable, 47);
+
+        assertEquals(json.readTree(json.writeValueAsString(page.map(TaskResponse::fromEntity))),
+                json.readTree(json.writeValueAsString(TaskListing.of(page))));
+    }
+
+    @Test
+    public void testOtherEncodings_FallBackToResponses() throws Exception {
+        List<Task> tasks = tasks(5);
+        ObjectMapper nonNull = json.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        ObjectMapper cbor = CompactWireFormat.create();
+
+        assertEquals(nonNull.writeValueAsString(responses(tasks)), nonNull.writeValueAsString(TaskListing.of(tasks)));
+        assertArrayEquals(cbor.writeValueAsBytes(responses(tasks)), cbor.writeValueAsBytes(TaskListing.of(tasks)));
+    }
+
+    @Test
+    public void testDateEncoder_MatchesIsoFormatter() {
+        IsoDateTimeEncoder encoder = new IsoDateTimeEncoder();
+        LocalDateTime[] values = {
+                LocalDateTime.of(2026, 1, 5, 12, 0),
+                LocalDateTime.of(2026, 1, 5, 23, 59, 59, 999_999_999),
+                LocalDateTime.of(2026, 1, 6, 0, 0, 1, 500_000_000),
+                LocalDateTime.of(2026, 12, 31, 8, 7, 6, 120_000),
+                LocalDateTime.of(999, 2, 3, 4, 5, 6, 7)
+        };
+        for (LocalDateTime value : values) {
+            assertEquals(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                    new String(encoder.buffer(), 0, encoder.encode(value)));
+        }
+        assertEquals(-1, encoder.encode(LocalDateTime.of(10000, 1, 1, 0, 0)));
+    }
+
+    private static List<TaskResponse> responses(List<Task> tasks) {
+        List<TaskResponse> responses = new ArrayList<>();
+        for (Task task : tasks) {
+            responses.add(TaskResponse.fromEntity(task));
+        }
+        return responses;
+    }
+
+    private static List<Task> tasks(int count) {
+        User user = User.builder().id(3L).username("alice").build();
+        LocalDateTime now = LocalDateTime.of(2026, 3, 14, 9, 30);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(Task.builder()
+                    .id((long) i + 1)
+                    .title("Task \"" + i + "\" é")
+                    .description(i % 3 == 0 ? null : "Details for task " + i)
+                    .status(Task.TaskStatus.values()[i % Task.TaskStatus.values().length])
+                    .priority(Task.TaskPriority.values()[i % Task.TaskPriority.values().length])
+                    .category(i % 5 == 0 ? null : Task.TaskCategory.values()[i % Task.TaskCategory.values().length])
+                    .dueDate(i % 2 == 0 ? null : now.plusHours(i * 7L).plusNanos(i * 123_000_000L))
+                    .completedAt(i % 4 == 1 ? now.minusMinutes(i) : null)
+                    .aiSummary(i % 2 == 0 ? "Summary " + i : null)
+                    .position(i)
+                    .user(user)
+                    .createdAt(now.minusDays(i % 3).plusSeconds(i))
+                    .updatedAt(now)
+                    .build());
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,202 @@
+package com.smarttask;
+
+import com.smarttask.dto.TaskResponse;
+import com.smarttask.entity.Task;
+import com.smarttask.entity.User;
+import com.smarttask.event.TaskChangedEvent;
+import com.smarttask.exception.ForbiddenException;
+import com.smarttask.exception.NotFoundException;
+import com.smarttask.repository.TaskRepository;
+import com.smarttask.service.TaskWriteBehindBuffer;
+import com.smarttask.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskWriteBehindBufferTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Task> tasks = new HashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TaskWriteBehindBuffer buffer;
+
+    @BeforeEach
+    public void setUp() {
+        tasks.put(1L, task(1L, 7L));
+        tasks.put(2L, task(2L, 8L));
+        lenient().when(taskRepository.findById(any())).thenAnswer(invocation ->
+                Optional.ofNullable(tasks.get(invocation.<Long>getArgument(0))));
+        lenient().when(taskRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Task> found = new ArrayList<>();
+            invocation.<Iterable<Long>>getArgument(0).forEach(id -> {
+                if (tasks.containsKey(id)) {
+                    found.add(tasks.get(id));
+                }
+            });
+            return found;
+        });
+        lenient().when(taskRepository.applyBuffered(any(), any(), anyBoolean(), any(), any(), anyBoolean(), any(), any()))
+                .thenAnswer(invocation -> {
+                    Task task = tasks.get(invocation.<Long>getArgument(0));
+                    if (task == null || !task.getUser().getId().equals(invocation.getArgument(1))) {
+                        return 0;
+                    }
+                    if (invocation.<Boolean>getArgument(2)) {
+                        task.setStatus(invocation.getArgument(3));
+                        task.setCompletedAt(invocation.getArgument(4));
+                    }
+                    if (invocation.<Boolean>getArgument(5)) {
+                        task.setPosition(invocation.getArgument(6));
+                    }
+                    task.setUpdatedAt(invocation.getArgument(7));
+                    return 1;
+                });
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        buffer = new TaskWriteBehindBuffer(taskRepository, transactionTemplate, eventPublisher,
+                new ShardRouter(false, "", 0, 128), meterRegistry, false, 5);
+    }
+
+    @Test
+    public void testUpdates_CoalescedIntoOneWrite() {
+        buffer.updatePosition(7L, 1L, 1);
+        buffer.updatePosition(7L, 1L, 2);
+        TaskResponse acknowledged = buffer.updateStatus(7L, 1L, Task.TaskStatus.COMPLETED);
+
+        assertEquals(2, acknowledged.getPosition());
+        assertEquals(Task.TaskStatus.COMPLETED, acknowledged.getStatus());
+        assertNotNull(acknowledged.getCompletedAt());
+        assertEquals(0, acknowledged.getUpdatedAt().getNano() % 1000);
+        verify(taskRepository, times(1)).findById(1L);
+        verify(taskRepository, never()).applyBuffered(any(), any(), anyBoolean(), any(), any(), anyBoolean(), any(), any());
+
+        buffer.flush();
+
+        Task written = tasks.get(1L);
+        assertEquals(2, written.getPosition());
+        assertEquals(Task.TaskStatus.COMPLETED, written.getStatus());
+        assertEquals(acknowledged.getCompletedAt(), written.getCompletedAt());
+        assertEquals(acknowledged.getUpdatedAt(), written.getUpdatedAt());
+        verify(taskRepository, times(1)).applyBuffered(any(), any(), anyBoolean(), any(), any(), anyBoolean(), any(), any());
+        verify(taskRepository, never()).saveAll(anyList());
+        ArgumentCaptor<TaskChangedEvent> event = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(0, event.getValue().before().getPosition());
+        assertEquals(2, event.getValue().after().getPosition());
+        assertEquals(acknowledged.getUpdatedAt(), event.getValue().after().getUpdatedAt());
+    }
+
+    @Test
+    public void testUpdate_OtherUsersTask() {
+        buffer.updatePosition(7L, 1L, 3);
+
+        assertThrows(ForbiddenException.class, () -> buffer.updatePosition(8L, 1L, 4));
+        assertThrows(ForbiddenException.class, () -> buffer.updateStatus(7L, 2L, Task.TaskStatus.COMPLETED));
+        assertThrows(NotFoundException.class, () -> buffer.updatePosition(7L, 99L, 1));
+    }
+
+    @Test
+    public void testFlushUser_WritesOnlyThatUser() {
+        buffer.updatePosition(7L, 1L, 5);
+        buffer.updatePosition(8L, 2L, 6);
+
+        buffer.flush(7L);
+
+        assertEquals(5, tasks.get(1L).getPosition());
+        assertEquals(0, tasks.get(2L).getPosition());
+        assertEquals(6, buffer.updatePosition(8L, 2L, 6).getPosition());
+    }
+
+    @Test
+    public void testFlush_UnchangedTaskSkipped() {
+        buffer.updatePosition(7L, 1L, 4);
+        buffer.updatePosition(7L, 1L, 0);
+        buffer.flush();
+
+        verify(eventPublisher, never()).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    public void testFlush_FailedBatchRetried() {
+        when(taskRepository.findAllById(anyIterable()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenAnswer(invocation -> List.of(tasks.get(1L)));
+
+        buffer.updatePosition(7L, 1L, 2);
+        buffer.flush();
+        tasks.put(1L, task(1L, 7L));
+        buffer.flush();
+
+        assertEquals(2, tasks.get(1L).getPosition());
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    public void testFlush_TaskGoneFromShardCountedAsDropped() {
+        buffer.updatePosition(7L, 1L, 3);
+        buffer.updatePosition(8L, 2L, 4);
+        tasks.remove(1L);
+
+        buffer.flush();
+
+        assertEquals(4, tasks.get(2L).getPosition());
+        assertEquals(1.0, meterRegistry.get("tasks.buffer.dropped").counter().count());
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    public void testFlush_OnlyOwnedColumnsWritten() {
+        buffer.updatePosition(7L, 1L, 3);
+        tasks.get(1L).setTitle("Renamed meanwhile");
+
+        buffer.flush();
+
+        verify(taskRepository).applyBuffered(eq(1L), eq(7L), eq(false), any(), any(), eq(true), eq(3), any());
+        assertEquals("Renamed meanwhile", tasks.get(1L).getTitle());
+        assertEquals(3, tasks.get(1L).getPosition());
+    }
+
+    private static Task task(Long id, Long userId) {
+        return Task.builder()
+                .id(id)
+                .title("Task " + id)
+                .status(Task.TaskStatus.PENDING)
+                .position(0)
+                .user(User.builder().id(userId).build())
+                .build();
+    }
+}
@@ -0,0 +1,139 @@
+package com.smarttask;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput and latency of the task list endpoint with Tomcat on platform threads versus
+ * virtual threads, against the in-memory H2 database. Each mode starts its own application
+ * and database; the client always uses virtual threads so it is never the bottleneck.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.smarttask.ThreadModelBenchmark
+ * Optional arguments: concurrency (default 2000) and seconds per mode (default 20).
+ */
+public class ThreadModelBenchmark {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SmartTaskAIApplication.class)
+                    .properties(
+                            "server.port=0",
+                            "spring.threads.virtual.enabled=" + virtual,
+                            "spring.datasource.url=jdbc:h2:mem:bench-" + virtual,
+                            "rate-limit.enabled=false",
+                            "logging.level.com.smarttask=WARN",
+                            "logging.level.org.springframework.security=WARN")
+                    .run()) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                run(virtual ? "virtual" : "platform", baseUrl, concurrency, Duration.ofSeconds(seconds));
+            }
+        }
+    }
+
+    private static void run(String mode, String baseUrl, int concurrency, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        String token = seed(client, baseUrl);
+        HttpRequest list = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+
+        // Warm up the JIT and connection pools before measuring
+        drive(client, list, Math.min(concurrency, 200), Duration.ofSeconds(5));
+        Result result = drive(client, list, concurrency, duration);
+
+        long[] latencies = result.latencies();
+        System.out.printf("%-8s concurrency %5d  %8.0f req/s  p50 %6.1f ms  p99 %7.1f ms  errors %d%n",
+                mode, concurrency, latencies.length / (double) duration.toSeconds(),
+                percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6, result.errors());
+    }
+
+    private static Result drive(HttpClient client, HttpRequest request, int concurrency, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        Queue<long[]> perClient = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            long[][] samples = {new long[1024]};
+            int[] count = {0};
+            threads.add(Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                    if (count[0] == samples[0].length) {
+                        samples[0] = Arrays.copyOf(samples[0], count[0] * 2);
+                    }
+                    samples[0][count[0]++] = System.nanoTime() - start;
+                }
+                perClient.add(Arrays.copyOf(samples[0], count[0]));
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] all = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors.get());
+    }
+
+    private static String seed(HttpClient client, String baseUrl) throws Exception {
+        String body = JSON.writeValueAsString(JSON.createObjectNode()
+                .put("username", "bench")
+                .put("email", "bench@example.com")
+                .put("password", "benchmark-password"));
+        JsonNode auth = JSON.readTree(post(client, baseUrl + "/api/auth/register", null, body));
+        String token = auth.get("token").asText();
+
+        for (int i = 0; i < 20; i++) {
+            post(client, baseUrl + "/api/tasks", token, JSON.writeValueAsString(JSON.createObjectNode()
+                    .put("title", "Benchmark task " + i)
+                    .put("description", "Review the quarterly report and send notes")));
+        }
+        return token;
+    }
+
+    private static String post(HttpClient client, String url, String token, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static long percentile(long[] sorted, double q) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.round(q * (sorted.length - 1)))];
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.smarttask;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttask.websocket.InMemoryBackplane;
+import com.smarttask.websocket.UserMessageRelay;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserMessageRelayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InMemoryBackplane backplane = new InMemoryBackplane();
+    private final List<String> deliveredOnA = new CopyOnWriteArrayList<>();
+    private final List<String> deliveredOnB = new CopyOnWriteArrayList<>();
+    private final List<String> deliveredOnC = new CopyOnWriteArrayList<>();
+
+    private final UserMessageRelay nodeA = node("a", deliveredOnA);
+    private final UserMessageRelay nodeB = node("b", deliveredOnB);
+    private final UserMessageRelay nodeC = node("c", deliveredOnC);
+
+    @Test
+    public void testSend_ReachesUserOnOtherNodeOnly() {
+        nodeB.sessionOpened(7L, "session-1");
+
+        nodeA.send(7L, "/queue/tasks/batch", Map.of("changes", 3));
+
+        assertTrue(deliveredOnA.isEmpty());
+        assertEquals(List.of("7 /queue/tasks/batch {\"changes\":3}"), deliveredOnB);
+        assertTrue(deliveredOnC.isEmpty());
+    }
+
+    @Test
+    public void testSend_DeliversOncePerNode() {
+        nodeA.sessionOpened(7L, "session-1");
+        nodeB.sessionOpened(7L, "session-2");
+        nodeB.sessionOpened(7L, "session-3");
+
+        nodeA.send(7L, "/queue/tasks/batch", Map.of("changes", 1));
+
+        assertEquals(1, deliveredOnA.size());
+        assertEquals(1, deliveredOnB.size());
+        assertTrue(deliveredOnC.isEmpty());
+    }
+
+    @Test
+    public void testSend_StopsAfterLastSessionCloses() {
+        nodeB.sessionOpened(7L, "session-1");
+        nodeB.sessionOpened(7L, "session-2");
+        nodeB.sessionClosed(7L, "session-1");
+
+        nodeA.send(7L, "/queue/tasks/batch", Map.of("changes", 1));
+        assertEquals(1, deliveredOnB.size());
+
+        nodeB.sessionClosed(7L, "session-2");
+        nodeA.send(7L, "/queue/tasks/batch", Map.of("changes", 1));
+
+        assertEquals(1, deliveredOnB.size());
+        assertTrue(backplane.nodesFor(7L).isEmpty());
+    }
+
+    private UserMessageRelay node(String nodeId, List<String> delivered) {
+        return new UserMessageRelay(nodeId, backplane, (user, destination, payload) ->
+                delivered.add(user + " " + destination + " " + json(payload)), objectMapper);
+    }
+
+    private String json(Object payload) {
+        JsonNode tree = objectMapper.valueToTree(payload);
+        return tree.toString();
+    }
+}
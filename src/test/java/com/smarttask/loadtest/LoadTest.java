@@ -0,0 +1,284 @@
+package com.smarttask.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttask.SmartTaskAIApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator for the task API. It seeds users and tasks, then drives a weighted mix of
+ * scenarios from virtual-thread clients, and reports throughput and p50/p99/p999 per endpoint.
+ *
+ * Without loadtest.url it starts the application in-process on H2 with rate limiting off, so
+ * one offline command is enough:
+ *
+ *   mvn -P loadtest test-compile exec:java -Dloadtest.users=50 -Dloadtest.duration=120
+ *
+ * Settings (system properties, defaults in brackets): loadtest.url, loadtest.users [20],
+ * loadtest.tasks per user [50], loadtest.concurrency [200], loadtest.warmup seconds [10],
+ * loadtest.duration seconds [60], loadtest.mix [login=2,create=15,list=45,status=20,reorder=10,summarize=8]
+ * and loadtest.max-error-rate [0.01]. Exits with status 1 when any scenario's error rate is
+ * above the maximum.
+ */
+public class LoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String PASSWORD = "load-test-password";
+    private static final String[] STATUSES = {"PENDING", "IN_PROGRESS", "COMPLETED"};
+    private static final String[] TITLES = {
+            "Prepare client presentation", "Book doctor appointment", "Buy groceries for the week",
+            "Review quarterly budget", "Finish online course module", "Plan family birthday dinner",
+            "Send project status report", "Pay electricity invoice", "Gym workout session"
+    };
+
+    enum Scenario {
+        LOGIN, CREATE, LIST, STATUS, REORDER, SUMMARIZE
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String baseUrl;
+    private final List<SeededUser> users = new ArrayList<>();
+    private final Map<Scenario, Integer> weights;
+    private final int totalWeight;
+
+    private Map<Scenario, LatencyHistogram> latencies;
+    private Map<Scenario, AtomicLong> errors;
+
+    LoadTest(String baseUrl, Map<Scenario, Integer> weights) {
+        this.baseUrl = baseUrl;
+        this.weights = weights;
+        this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("loadtest.url", "");
+        int userCount = Integer.getInteger("loadtest.users", 20);
+        int tasksPerUser = Integer.getInteger("loadtest.tasks", 50);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 200);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup", 10);
+        int durationSeconds = Integer.getInteger("loadtest.duration", 60);
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+        Map<Scenario, Integer> weights = parseMix(System.getProperty("loadtest.mix",
+                "login=2,create=15,list=45,status=20,reorder=10,summarize=8"));
+
+        ConfigurableApplicationContext context = null;
+        if (url.isBlank()) {
+            context = new SpringApplicationBuilder(SmartTaskAIApplication.class)
+                    .properties(
+                            "server.port=0",
+                            "spring.datasource.url=jdbc:h2:mem:loadtest",
+                            "rate-limit.enabled=false",
+                            "logging.level.com.smarttask=WARN",
+                            "logging.level.org.springframework.security=WARN")
+                    .run();
+            url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        boolean passed;
+        try {
+            LoadTest loadTest = new LoadTest(url, weights);
+            long seedStart = System.nanoTime();
+            loadTest.seed(userCount, tasksPerUser);
+            System.out.printf("Seeded %d users x %d tasks in %.1f s against %s%n", userCount, tasksPerUser,
+                    (System.nanoTime() - seedStart) / 1e9, url);
+
+            loadTest.run(concurrency, Duration.ofSeconds(warmupSeconds));
+            loadTest.run(concurrency, Duration.ofSeconds(durationSeconds));
+            passed = loadTest.report(Duration.ofSeconds(durationSeconds), concurrency, maxErrorRate);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    void seed(int userCount, int tasksPerUser) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<Thread> threads = new ArrayList<>();
+        for (int u = 0; u < userCount; u++) {
+            String username = "load-" + runId + "-" + u;
+            String token = JSON.readTree(send(post("/api/auth/register", null, JSON.createObjectNode()
+                    .put("username", username)
+                    .put("email", username + "@example.com")
+                    .put("password", PASSWORD)
+                    .toString())).body()).get("token").asText();
+            SeededUser user = new SeededUser(username, token, new long[tasksPerUser]);
+            users.add(user);
+
+            threads.add(Thread.ofVirtual().start(() -> {
+                for (int t = 0; t < tasksPerUser; t++) {
+                    try {
+                        user.taskIds()[t] = JSON.readTree(send(createTask(user)).body()).get("id").asLong();
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Seeding tasks for " + username + " failed", e);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    void run(int concurrency, Duration duration) throws InterruptedException {
+        latencies = new EnumMap<>(Scenario.class);
+        errors = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            latencies.put(scenario, new LatencyHistogram());
+            errors.put(scenario, new AtomicLong());
+        }
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Thread> clients = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            clients.add(Thread.ofVirtual().name("load-client-" + i).start(() -> {
+                while (System.nanoTime() < deadline) {
+                    Scenario scenario = pick();
+                    SeededUser user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+                    long start = System.nanoTime();
+                    try {
+                        int status = send(request(scenario, user)).statusCode();
+                        if (status >= 400) {
+                            errors.get(scenario).incrementAndGet();
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        errors.get(scenario).incrementAndGet();
+                        continue;
+                    }
+                    latencies.get(scenario).record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                }
+            }));
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+    }
+
+    boolean report(Duration duration, int concurrency, double maxErrorRate) {
+        System.out.printf("%nconcurrency %d, %d s%n", concurrency, duration.toSeconds());
+        System.out.printf("%-10s %9s %7s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+
+        boolean passed = true;
+        long totalRequests = 0;
+        for (Scenario scenario : Scenario.values()) {
+            LatencyHistogram histogram = latencies.get(scenario);
+            long failed = errors.get(scenario).get();
+            long requests = histogram.count() + failed;
+            totalRequests += requests;
+            if (requests == 0) {
+                continue;
+            }
+            System.out.printf("%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    scenario.name().toLowerCase(), requests, failed, requests / (double) duration.toSeconds(),
+                    histogram.percentile(0.50) / 1e3, histogram.percentile(0.99) / 1e3,
+                    histogram.percentile(0.999) / 1e3, histogram.max() / 1e3);
+            if (failed > requests * maxErrorRate) {
+                passed = false;
+            }
+        }
+        System.out.printf("%-10s %9d %7s %9.1f%n", "total", totalRequests, "", totalRequests / (double) duration.toSeconds());
+        if (!passed) {
+            System.out.printf("FAILED: error rate above %.2f%% for at least one scenario%n", maxErrorRate * 100);
+        }
+        return passed;
+    }
+
+    private Scenario pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Scenario, Integer> weight : weights.entrySet()) {
+            roll -= weight.getValue();
+            if (roll < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty scenario mix");
+    }
+
+    private HttpRequest request(Scenario scenario, SeededUser user) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long taskId = user.taskIds()[random.nextInt(user.taskIds().length)];
+        return switch (scenario) {
+            case LOGIN -> post("/api/auth/login", null, JSON.createObjectNode()
+                    .put("username", user.username())
+                    .put("password", PASSWORD)
+                    .toString());
+            case CREATE -> createTask(user);
+            case LIST -> authorized("/api/tasks?page=" + random.nextInt(5) + "&size=20", user).GET().build();
+            case STATUS -> authorized("/api/tasks/" + taskId + "/status?status=" + STATUSES[random.nextInt(STATUSES.length)], user)
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+            case REORDER -> authorized("/api/tasks/" + taskId + "/position?position=" + random.nextInt(user.taskIds().length), user)
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+            case SUMMARIZE -> authorized("/api/tasks/ai/summarize", user)
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+        };
+    }
+
+    // No category or priority, so every create goes through AI classification
+    private HttpRequest createTask(SeededUser user) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return post("/api/tasks", user.token(), JSON.createObjectNode()
+                .put("title", TITLES[random.nextInt(TITLES.length)])
+                .put("description", "Load test task " + random.nextInt(1_000_000) + ", follow up before the deadline")
+                .toString());
+    }
+
+    private HttpRequest post(String path, String token, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest.Builder authorized(String path, SeededUser user) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + user.token());
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid scenario weight '" + entry + "', expected name=weight");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Scenario.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Scenario mix '" + mix + "' has no positive weights");
+        }
+        return weights;
+    }
+
+    private record SeededUser(String username, String token, long[] taskIds) {
+    }
+}